@@ -0,0 +1,63 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.CarRentalSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against a private in-memory H2 database for one benchmark trial.
+ */
+final class BenchmarkContext {
+
+    static final String JWT_SECRET = Base64.getEncoder().encodeToString(
+            "benchmark-secret-key-that-is-at-least-256-bits-long".getBytes());
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Extra {@code --key=value} arguments replace the defaults with the same key, so the same code
+     * can also run against another database, e.g. a local MySQL.
+     */
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> defaults = List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime()
+                        + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                // Hibernate creates the schema here, so there is nothing for Flyway to migrate; only the
+                // table without an entity behind it comes from its migration
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.properties.jakarta.persistence.sql-load-script-source=db/migration/V7__table_versions.sql",
+                "--spring.jpa.properties.hibernate.hbm2ddl.import_files_sql_extractor="
+                        + "org.hibernate.tool.schema.internal.script.MultiLineSqlScriptExtractor",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--jwt.secret=" + JWT_SECRET);
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : defaults) {
+            args.put(key(arg), arg);
+        }
+        for (String arg : extraArgs) {
+            args.put(key(arg), arg);
+        }
+        return new SpringApplicationBuilder(CarRentalSystemApplication.class)
+                .run(args.values().toArray(String[]::new));
+    }
+
+    private static String key(String arg) {
+        int equals = arg.indexOf('=');
+        return equals < 0 ? arg : arg.substring(0, equals);
+    }
+}
@@ -0,0 +1,52 @@
+package com.carrental.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits {@code --name=value} arguments of the standalone tools into their own options and the rest,
+ * which is handed to Spring unchanged (e.g. {@code --spring.datasource.url=...}).
+ */
+final class CommandLineOptions {
+
+    private final Map<String, String> values;
+    private final List<String> springArgs;
+
+    private CommandLineOptions(Map<String, String> values, List<String> springArgs) {
+        this.values = values;
+        this.springArgs = springArgs;
+    }
+
+    static CommandLineOptions parse(String[] args, String... names) {
+        Set<String> known = Set.of(names);
+        Map<String, String> values = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name != null && known.contains(name)) {
+                values.put(name, arg.substring(equals + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+        return new CommandLineOptions(values, springArgs);
+    }
+
+    int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long longValue(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    String[] springArgs() {
+        return springArgs.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,75 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.dto.MaintenanceDTO;
+import com.carrental.carrental.dto.VehicleDTO;
+import com.carrental.carrental.enums.MaintenanceStatus;
+import com.carrental.carrental.model.Maintenance;
+import com.carrental.carrental.model.Vehicle;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping in isolation, without Spring or a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    private List<Vehicle> vehicles;
+    private List<Maintenance> maintenanceRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = new ArrayList<>(size);
+        maintenanceRecords = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId((long) i);
+            vehicle.setLicensePlate(String.format("BN-%06d", i));
+            vehicle.setMake("Toyota");
+            vehicle.setModel("Corolla");
+            vehicle.setYear(2020);
+            vehicle.setColour("White");
+            vehicle.setMileageLimitPerDay(BigDecimal.valueOf(200));
+            vehicle.setWeeklyRate(new BigDecimal("250.00"));
+            vehicle.setStatus("Available");
+            vehicles.add(vehicle);
+
+            Maintenance maintenance = new Maintenance();
+            maintenance.setId((long) i);
+            maintenance.setVehicle(vehicle);
+            maintenance.setMaintenanceDate(LocalDate.now().minusDays(i % 365));
+            maintenance.setCost(new BigDecimal("120.50"));
+            maintenance.setIssue("Oil change");
+            maintenance.setStatus(MaintenanceStatus.COMPLETED);
+            maintenanceRecords.add(maintenance);
+        }
+    }
+
+    @Benchmark
+    public void vehicleToDto(Blackhole blackhole) {
+        for (Vehicle vehicle : vehicles) {
+            blackhole.consume(new VehicleDTO(vehicle));
+        }
+    }
+
+    @Benchmark
+    public void maintenanceToDto(Blackhole blackhole) {
+        for (Maintenance maintenance : maintenanceRecords) {
+            blackhole.consume(new MaintenanceDTO(maintenance));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.dto.AvailabilityStatsDTO;
+import com.carrental.carrental.dto.VehicleAvailabilityDTO;
+import com.carrental.carrental.dto.VehicleDTO;
+import com.carrental.carrental.service.AvailabilityService;
+import com.carrental.carrental.service.VehicleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths behind the availability dashboard and the vehicle dropdown, measured
+ * against a seeded H2 database at several fleet and booking-history sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FleetReadBenchmark {
+
+    @Param({"100", "1000"})
+    int fleetSize;
+
+    @Param({"10", "100"})
+    int bookingsPerVehicle;
+
+    private ConfigurableApplicationContext context;
+    private AvailabilityService availabilityService;
+    private VehicleService vehicleService;
+    private long[] vehicleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        vehicleIds = new FleetSeeder(context, 42).seed(fleetSize, bookingsPerVehicle);
+        availabilityService = context.getBean(AvailabilityService.class);
+        vehicleService = context.getBean(VehicleService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isVehicleAvailable() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().plusDays(random.nextInt(-30, 60));
+        return availabilityService.isVehicleAvailable(
+                vehicleIds[random.nextInt(vehicleIds.length)], start, start.plusDays(3));
+    }
+
+    @Benchmark
+    public List<VehicleAvailabilityDTO> getAllVehiclesWithAvailability() {
+        return availabilityService.getAllVehiclesWithAvailability();
+    }
+
+    @Benchmark
+    public AvailabilityStatsDTO getAvailabilityStats() {
+        return availabilityService.getAvailabilityStats();
+    }
+
+    // Body of GET /api/vehicles on a cache miss (no matching If-None-Match)
+    @Benchmark
+    public List<VehicleDTO> getAllVehicles() {
+        return vehicleService.getAllCars().stream()
+                .map(VehicleDTO::new)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,156 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Customer;
+import com.carrental.carrental.model.CustomerEmail;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.service.AvailabilitySnapshot;
+import com.carrental.carrental.service.QuoteEngine;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the benchmark database with a fleet and a booking history of a chosen size.
+ * Bulk rows go through plain JDBC batches so seeding stays quick at large sizes.
+ */
+final class FleetSeeder {
+
+    private static final String[][] MODELS = {
+            {"Toyota", "Corolla"}, {"Toyota", "RAV4"}, {"Honda", "Civic"}, {"Ford", "Focus"},
+            {"Volkswagen", "Golf"}, {"BMW", "3 Series"}, {"Nissan", "Leaf"}, {"Hyundai", "Tucson"}
+    };
+    private static final int BATCH = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final EntityManager entityManager;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final AvailabilitySnapshot availabilitySnapshot;
+    private final QuoteEngine quoteEngine;
+    private final Random random;
+
+    FleetSeeder(ApplicationContext context, long seed) {
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.tx = context.getBean(TransactionTemplate.class);
+        this.entityManager = context.getBean(EntityManager.class);
+        this.blockedPeriodRepository = context.getBean(BlockedPeriodRepository.class);
+        this.availabilitySnapshot = context.getBean(AvailabilitySnapshot.class);
+        this.quoteEngine = context.getBean(QuoteEngine.class);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Seeds {@code fleetSize} vehicles, each with {@code bookingsPerVehicle} back-to-back bookings
+     * ending around today, and returns the vehicle ids.
+     */
+    long[] seed(int fleetSize, int bookingsPerVehicle) {
+        long[] customerIds = seedCustomers(Math.max(10, fleetSize * 2));
+        long[] vehicleIds = seedVehicles(fleetSize);
+        seedBookings(vehicleIds, customerIds, bookingsPerVehicle);
+        seedBlocks(vehicleIds);
+        // JDBC rows bypass the change listeners, so rebuild the dashboard snapshot before measuring
+        availabilitySnapshot.invalidateAll();
+        availabilitySnapshot.refresh();
+        return vehicleIds;
+    }
+
+    long[] seedCustomers(int count) {
+        List<Long> ids = tx.execute(status -> {
+            List<Long> created = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Customer customer = new Customer();
+                entityManager.persist(customer);
+                entityManager.persist(new CustomerEmail(null, customer.getId(),
+                        "customer" + i + "@example.com", true, LocalDateTime.now()));
+                created.add(customer.getId());
+                if (i % BATCH == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return created;
+        });
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    long[] seedVehicles(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] makeModel = MODELS[random.nextInt(MODELS.length)];
+            rows.add(new Object[]{
+                    String.format("BN-%06d", i), makeModel[0], makeModel[1], 2015 + random.nextInt(10),
+                    "White", BigDecimal.valueOf(150 + random.nextInt(5) * 50),
+                    BigDecimal.valueOf(20000 + random.nextInt(400) * 100, 2), "Available"});
+        }
+        batch("INSERT INTO Vehicle (LicensePlate, Make, Model, Year, Colour, MileageLimitPerDay, WeeklyRate, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        // The rate tables were loaded at startup, before these rows existed
+        quoteEngine.invalidateAll();
+        return jdbc.queryForList("SELECT VehicleID FROM Vehicle ORDER BY VehicleID", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    void seedBookings(long[] vehicleIds, long[] customerIds, int bookingsPerVehicle) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        long bookingId = 0;
+        for (long vehicleId : vehicleIds) {
+            // Walk backwards from a random point around today so each car's latest booking may be current
+            LocalDate end = today.plusDays(random.nextInt(14) - 7);
+            for (int i = 0; i < bookingsPerVehicle; i++) {
+                LocalDate start = end.minusDays(1 + random.nextInt(7));
+                String status = !end.isBefore(today) ? "ACTIVE" : (random.nextInt(10) == 0 ? "CANCELLED" : "COMPLETED");
+                long customerId = customerIds[random.nextInt(customerIds.length)];
+                rows.add(new Object[]{++bookingId, customerId, vehicleId, "Customer " + customerId,
+                        Date.valueOf(start), Date.valueOf(end), "Airport", "Airport",
+                        BigDecimal.valueOf(5000 + random.nextInt(50000), 2), status});
+                if (rows.size() == BATCH) {
+                    insertBookings(rows);
+                    rows.clear();
+                }
+                end = start.minusDays(random.nextInt(4));
+            }
+        }
+        insertBookings(rows);
+        // Keep the id generator above the seeded rows so bookings created during a benchmark do not collide
+        jdbc.update("MERGE INTO id_generator (sequence_name, next_val) KEY (sequence_name) VALUES ('Booking', ?)",
+                bookingId + 51);
+    }
+
+    void seedBlocks(long[] vehicleIds) {
+        LocalDate today = LocalDate.now();
+        List<BlockedPeriod> blocks = new ArrayList<>();
+        for (long vehicleId : vehicleIds) {
+            if (random.nextInt(10) == 0) {
+                BlockedPeriod block = new BlockedPeriod();
+                block.setVehicleId(vehicleId);
+                block.setStartDate(today.plusDays(20 + random.nextInt(30)));
+                block.setEndDate(block.getStartDate().plusDays(2 + random.nextInt(5)));
+                block.setReason("Scheduled service");
+                blocks.add(block);
+            }
+        }
+        blockedPeriodRepository.saveAll(blocks);
+    }
+
+    private void insertBookings(List<Object[]> rows) {
+        batch("INSERT INTO Booking (BookingID, CustomerID, VehicleID, CustomerName, PickupDate, ReturnDate, " +
+                "PickupLocation, ReturnLocation, TotalCost, BookingStatus) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+}
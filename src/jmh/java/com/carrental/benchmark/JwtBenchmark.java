@@ -0,0 +1,56 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification cost, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(10_000);
+        setField("secretKey", BenchmarkContext.JWT_SECRET);
+        setField("expirationTime", 3_600_000L);
+        user = User.withUsername("benchmark").password("unused").roles("ADMIN").build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        Claims claims = jwtService.verify(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean verifyUncached() {
+        jwtService.getVerifiedTokenCache().invalidate(token);
+        Claims claims = jwtService.verify(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+
+    // The service is normally configured through @Value fields, which are not set outside Spring
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtService.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtService, value);
+    }
+}
@@ -0,0 +1,268 @@
+package com.carrental.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of the REST endpoints at a fixed request rate and reports latency
+ * percentiles and the error rate per endpoint.
+ * <p>
+ * The driver is open-loop: request {@code i} is due at {@code start + i / rate} whether or not
+ * earlier ones have finished, each runs on its own virtual thread, and latency is measured from the
+ * due time rather than from the actual send. A server that falls behind therefore shows up as
+ * growing latency instead of a silently lower rate (no coordinated omission). Requests due during
+ * the warm-up are sent but not recorded.
+ * <p>
+ * Run: {@code mvn -P benchmark compile exec:exec@load-test -Dload.args="--rate=500 --vehicles=5000"}.
+ * Everything runs in one JVM against in-memory H2 unless {@code --spring.datasource.*} points
+ * elsewhere.
+ */
+final class LoadDriver {
+
+    private static final String[] SEARCH_TERMS = {"scratch", "dent", "windscreen", "tyre", "mirror", "airport", "motorway"};
+
+    // Weights are relative; the availability check dominates because the booking form calls it on every change
+    private final Endpoint[] endpoints = {
+            new Endpoint("check-availability", 30, this::checkAvailability),
+            new Endpoint("vehicles", 15, () -> get("/api/vehicles")),
+            new Endpoint("availability-dashboard", 15, () -> get("/api/availability/vehicles?page=0&size=50")),
+            new Endpoint("availability-stats", 10, () -> get("/api/availability/stats")),
+            new Endpoint("free-vehicles", 8, this::freeVehicles),
+            new Endpoint("fleet-quote", 7, this::fleetQuote),
+            new Endpoint("bookings-page", 5, () -> get("/api/bookings/page?vehicleId=" + anyVehicle() + "&limit=50")),
+            new Endpoint("incident-search", 4, () -> get("/incidents/search?q="
+                    + SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)])),
+            new Endpoint("maintenance-history", 3, () -> get("/api/maintenance/car/" + anyVehicle() + "?page=0&size=20")),
+            new Endpoint("create-booking", 3, this::createBooking),
+    };
+
+    private final String baseUrl;
+    private final long[] vehicleIds;
+    private final long[] customerIds;
+    private final HttpClient http;
+    private final int totalWeight;
+
+    LoadDriver(String baseUrl, long[] vehicleIds, long[] customerIds, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.vehicleIds = vehicleIds;
+        this.customerIds = customerIds;
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.totalWeight = Arrays.stream(endpoints).mapToInt(Endpoint::weight).sum();
+    }
+
+    /**
+     * Sends {@code rate} requests per second for the warm-up plus the measurement period, waits
+     * for the stragglers and prints the report.
+     */
+    void run(int rate, int warmupSeconds, int durationSeconds) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long sent = 0;
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due = start + ++sent * intervalNanos) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = pick();
+                long intended = due;
+                boolean measured = due >= measureFrom;
+                requests.submit(() -> {
+                    boolean ok;
+                    try {
+                        ok = endpoint.call().send();
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (measured) {
+                        endpoint.record(System.nanoTime() - intended, ok);
+                    }
+                });
+            }
+        }
+        report(durationSeconds);
+    }
+
+    private Endpoint pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints[0];
+    }
+
+    private void report(int durationSeconds) {
+        System.out.printf("%-24s %8s %8s %10s %10s %10s%n", "endpoint", "count", "errors", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        long errors = 0;
+        Recorder all = new Recorder();
+        for (Endpoint endpoint : endpoints) {
+            Recorder recorder = endpoint.recorder;
+            synchronized (recorder) {
+                System.out.println(recorder.line(endpoint.name()));
+                total += recorder.count;
+                errors += recorder.errors;
+                all.addAll(recorder);
+            }
+        }
+        System.out.println(all.line("all"));
+        System.out.printf("Achieved %.1f req/s, error rate %.2f%%%n",
+                (double) total / durationSeconds, total == 0 ? 0 : 100.0 * errors / total);
+    }
+
+    // --- requests ---
+
+    private Call checkAvailability() {
+        LocalDate start = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(-30, 90));
+        return get("/api/availability/check-availability?vehicleId=" + anyVehicle()
+                + "&startDate=" + start + "&endDate=" + start.plusDays(3));
+    }
+
+    private Call freeVehicles() {
+        LocalDate start = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 60));
+        return get("/api/availability/free?startDate=" + start + "&endDate=" + start.plusDays(4) + "&page=0&size=50");
+    }
+
+    private Call fleetQuote() {
+        LocalDate start = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 60));
+        return get("/api/quotes/fleet?startDate=" + start + "&endDate="
+                + start.plusDays(ThreadLocalRandom.current().nextInt(1, 15)));
+    }
+
+    // Far enough ahead that most succeed; a 409 for an overlap is the expected answer, not an error
+    private Call createBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate pickup = LocalDate.now().plusDays(random.nextInt(120, 400));
+        String body = "{\"vehicle\":{\"id\":" + anyVehicle() + "},"
+                + "\"customer\":{\"id\":" + customerIds[random.nextInt(customerIds.length)] + "},"
+                + "\"customerName\":\"Load test\","
+                + "\"pickupDate\":\"" + pickup + "\",\"returnDate\":\"" + pickup.plusDays(random.nextInt(1, 8)) + "\","
+                + "\"pickupLocation\":\"Airport\",\"returnLocation\":\"Airport\","
+                + "\"bookingStatus\":\"ACTIVE\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return () -> {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status == 200 || status == 409;
+        };
+    }
+
+    private Call get(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return () -> http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private long anyVehicle() {
+        return vehicleIds[ThreadLocalRandom.current().nextInt(vehicleIds.length)];
+    }
+
+    public static void main(String[] args) {
+        CommandLineOptions options = CommandLineOptions.parse(args, "rate", "warmup-seconds", "duration-seconds",
+                "vehicles", "customers", "history-days", "seed");
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(options.springArgs());
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            SyntheticDataGenerator.Dataset dataset = new SyntheticDataGenerator(context, options.longValue("seed", 42))
+                    .generate(options.intValue("vehicles", 1000), options.intValue("customers", 5000),
+                            options.intValue("history-days", 365));
+            System.out.println(dataset);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadDriver("http://localhost:" + port, dataset.vehicleIds(), dataset.customerIds(), clientExecutor)
+                    .run(options.intValue("rate", 200), options.intValue("warmup-seconds", 10),
+                            options.intValue("duration-seconds", 60));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        boolean send() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface CallFactory {
+        Call create();
+    }
+
+    private record Endpoint(String name, int weight, CallFactory factory, Recorder recorder) {
+
+        Endpoint(String name, int weight, CallFactory factory) {
+            this(name, weight, factory, new Recorder());
+        }
+
+        Call call() {
+            return factory.create();
+        }
+
+        void record(long latencyNanos, boolean ok) {
+            synchronized (recorder) {
+                recorder.add(latencyNanos, ok);
+            }
+        }
+    }
+
+    // Raw latencies; at a few thousand requests per second a sorted array is cheap enough for exact percentiles
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void add(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        String line(String name) {
+            if (count == 0) {
+                return String.format("%-24s %8d %8d %10s %10s %10s", name, 0, 0, "-", "-", "-");
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return String.format("%-24s %8d %8d %10.2f %10.2f %10.2f", name, count, errors,
+                    millis(sorted[(int) Math.ceil(count * 0.50) - 1]),
+                    millis(sorted[(int) Math.ceil(count * 0.99) - 1]),
+                    millis(sorted[count - 1]));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.BookingRepository;
+import com.carrental.carrental.service.AvailabilityService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking and block overlap queries at 1M bookings (10,000 vehicles with 100 bookings each),
+ * with and without the V4/V5 migrations applied. With {@code indexed=true} the H2 query plans
+ * are printed and setup fails if one of them does not use the expected index; run the printed
+ * statements through EXPLAIN on MySQL to check the plans there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OverlapQueryBenchmark {
+
+    private static final int FLEET_SIZE = 10_000;
+    private static final int BOOKINGS_PER_VEHICLE = 100;
+
+    // Statement, index it must use
+    private static final String[][] PLANS = {
+            {"SELECT COUNT(*) FROM Booking WHERE VehicleID = 42 AND BookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+                    "AND PickupDate < CURRENT_DATE + 3 AND ReturnDate > CURRENT_DATE",
+                    "IDX_BOOKING_VEHICLE_STATUS_DATES"},
+            {"SELECT b.* FROM Booking b WHERE b.VehicleID IN (1, 2, 3) AND b.BookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+                    "AND NOT EXISTS (SELECT 1 FROM Booking e WHERE e.VehicleID = b.VehicleID " +
+                    "AND e.BookingStatus IN ('ACTIVE', 'CONFIRMED') AND (e.PickupDate < b.PickupDate " +
+                    "OR (e.PickupDate = b.PickupDate AND e.BookingID < b.BookingID)))",
+                    "IDX_BOOKING_VEHICLE_STATUS_DATES"},
+            {"SELECT COUNT(*) FROM BlockedPeriod WHERE vehicleId = 42 " +
+                    "AND startDate <= CURRENT_DATE + 3 AND endDate >= CURRENT_DATE",
+                    "IDX_BLOCKED_PERIOD_VEHICLE_DATES"},
+            {"SELECT * FROM BlockedPeriod WHERE endDate >= CURRENT_DATE ORDER BY startDate",
+                    "IDX_BLOCKED_PERIOD_END_DATE"},
+    };
+
+    @Param({"false", "true"})
+    boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private BlockedPeriodRepository blockedPeriodRepository;
+    private AvailabilityService availabilityService;
+    private long[] vehicleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        context = BenchmarkContext.start();
+        vehicleIds = new FleetSeeder(context, 11).seed(FLEET_SIZE, BOOKINGS_PER_VEHICLE);
+        if (indexed) {
+            // Same scripts Flyway runs; the schema here comes from Hibernate
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V4__booking_status_constraint.sql"));
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V5__overlap_indexes.sql"));
+            }
+            checkPlans(context.getBean(JdbcTemplate.class));
+        }
+        bookingRepository = context.getBean(BookingRepository.class);
+        blockedPeriodRepository = context.getBean(BlockedPeriodRepository.class);
+        availabilityService = context.getBean(AvailabilityService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsOverlappingActiveBooking() {
+        LocalDate start = randomStart();
+        return bookingRepository.existsOverlappingActiveBooking(randomVehicle(), start, start.plusDays(3), null);
+    }
+
+    @Benchmark
+    public boolean existsOverlappingBlock() {
+        LocalDate start = randomStart();
+        return blockedPeriodRepository.existsOverlappingBlock(randomVehicle(), start, start.plusDays(3));
+    }
+
+    // What the interval index loads on a vehicle's first check
+    @Benchmark
+    public int activeBookingsForVehicle() {
+        return bookingRepository.findByVehicle_IdAndBookingStatusIn(randomVehicle(), BookingStatus.HOLDING).size();
+    }
+
+    // One dashboard page's worth of current bookings
+    @Benchmark
+    public int firstActiveBookings() {
+        List<Long> ids = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            ids.add(randomVehicle());
+        }
+        return bookingRepository.findFirstActiveBookings(ids).size();
+    }
+
+    @Benchmark
+    public long findFreeVehicles() {
+        LocalDate start = randomStart();
+        return availabilityService.findFreeVehicles(start, start.plusDays(3), null, null, PageRequest.of(0, 50))
+                .getTotalElements();
+    }
+
+    @Benchmark
+    public int activeBlocks() {
+        return blockedPeriodRepository.findActiveBlocks().size();
+    }
+
+    private static void checkPlans(JdbcTemplate jdbc) {
+        for (String[] plan : PLANS) {
+            String explained = String.join("\n", jdbc.queryForList("EXPLAIN " + plan[0], String.class));
+            System.out.println("EXPLAIN " + plan[0] + "\n" + explained + "\n");
+            if (!explained.toUpperCase().contains(plan[1])) {
+                throw new IllegalStateException("Expected " + plan[1] + " in the plan of: " + plan[0]);
+            }
+        }
+    }
+
+    private long randomVehicle() {
+        return vehicleIds[ThreadLocalRandom.current().nextInt(vehicleIds.length)];
+    }
+
+    private static LocalDate randomStart() {
+        return LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(-700, 60));
+    }
+}
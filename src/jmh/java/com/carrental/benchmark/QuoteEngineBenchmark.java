@@ -0,0 +1,83 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.dto.QuoteDTO;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.VehicleRepository;
+import com.carrental.carrental.service.QuoteEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing one date range across a 10,000-vehicle fleet: the fixed-point engine on its own,
+ * with the response DTOs, and a {@link BigDecimal} version of the same formula for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuoteEngineBenchmark {
+
+    private static final BigDecimal SEVEN = BigDecimal.valueOf(7);
+
+    private ConfigurableApplicationContext context;
+    private QuoteEngine quoteEngine;
+    private List<Vehicle> vehicles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        new FleetSeeder(context, 5).seedVehicles(10_000);
+        quoteEngine = context.getBean(QuoteEngine.class);
+        vehicles = context.getBean(VehicleRepository.class).findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long[] priceFleetCents() {
+        LocalDate start = randomStart();
+        return quoteEngine.priceFleetCents(start, start.plusDays(randomLength()));
+    }
+
+    @Benchmark
+    public List<QuoteDTO> quoteFleet() {
+        LocalDate start = randomStart();
+        return quoteEngine.quoteFleet(start, start.plusDays(randomLength()));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalBaseline() {
+        LocalDate start = randomStart();
+        long days = Math.max(1, ChronoUnit.DAYS.between(start, start.plusDays(randomLength())));
+        BigDecimal weeks = BigDecimal.valueOf(days / 7);
+        BigDecimal extraDays = BigDecimal.valueOf(days % 7);
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Vehicle vehicle : vehicles) {
+            BigDecimal weekly = vehicle.getWeeklyRate();
+            BigDecimal part = weekly.multiply(extraDays).divide(SEVEN, 2, RoundingMode.HALF_UP).min(weekly);
+            sum = sum.add(weekly.multiply(weeks).add(part));
+        }
+        return sum;
+    }
+
+    private static LocalDate randomStart() {
+        return LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(365));
+    }
+
+    private static int randomLength() {
+        return 1 + ThreadLocalRandom.current().nextInt(30);
+    }
+}
@@ -0,0 +1,95 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.model.Customer;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.service.BookingReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent reservations through {@link BookingReservationService}. In {@code hot} mode every
+ * thread books the same vehicle, in {@code cold} mode requests spread across the fleet. The
+ * accepted and conflicts counters show how many attempts ended in a booking or a 409.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationContentionBenchmark {
+
+    @Param({"hot", "cold"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookingReservationService reservationService;
+    private long[] vehicleIds;
+    private long[] customerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        FleetSeeder seeder = new FleetSeeder(context, 7);
+        customerIds = seeder.seedCustomers(100);
+        vehicleIds = seeder.seedVehicles(200);
+        reservationService = context.getBean(BookingReservationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+        public long accepted;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public void reserve(Outcome outcome) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId("hot".equals(mode) ? vehicleIds[0] : vehicleIds[random.nextInt(vehicleIds.length)]);
+        LocalDate pickup = LocalDate.now().plusDays(random.nextInt(3650));
+
+        Booking booking = new Booking();
+        booking.setVehicle(vehicle);
+        booking.setCustomer(new Customer(customerIds[random.nextInt(customerIds.length)]));
+        booking.setCustomerName("Benchmark");
+        booking.setPickupDate(pickup);
+        booking.setReturnDate(pickup.plusDays(3));
+        booking.setPickupLocation("Airport");
+        booking.setReturnLocation("Airport");
+        booking.setTotalCost(new BigDecimal("300.00"));
+        // Only ACTIVE and CONFIRMED bookings take part in the overlap checks; the default (PENDING) never conflicts
+        booking.setBookingStatus(BookingStatus.ACTIVE);
+        try {
+            reservationService.reserve(booking);
+            outcome.accepted++;
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() != HttpStatus.CONFLICT) {
+                throw e;
+            }
+            outcome.conflicts++;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.service.AvailabilitySnapshot;
+import com.carrental.carrental.service.FleetCounters;
+import com.carrental.carrental.service.IncidentSearchIndex;
+import com.carrental.carrental.service.QuoteEngine;
+import com.carrental.carrental.service.TableVersions;
+import com.carrental.carrental.service.VehicleIntervalIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds a production-like data set: vehicles, customers with their primary email, a booking
+ * history per vehicle, blocked periods, maintenance rows and incidents with follow-up notes.
+ * <p>
+ * Popular models get more of the fleet, newer cars are more common, rentals last a few days with a
+ * long tail, the gap between rentals differs per car, repeat customers book more often than new
+ * ones, and incidents come out of finished rentals. Bulk rows go through portable JDBC batches, so
+ * it works on H2 and on a local MySQL alike; afterwards the in-memory indexes and counters that
+ * JDBC bypassed are rebuilt.
+ * <p>
+ * Standalone against a local MySQL (the default in-memory H2 is gone when the run ends):
+ * {@code mvn -P benchmark compile exec:exec@seed-data -Dseed.args="--vehicles=5000
+ * --spring.datasource.url=jdbc:mysql://localhost:3306/CarRentalSystem --spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver
+ * --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect --spring.jpa.hibernate.ddl-auto=validate
+ * --spring.flyway.enabled=true ..."}. {@link LoadDriver} seeds and drives load in one go.
+ */
+final class SyntheticDataGenerator {
+
+    // make, model, weekly rate in whole currency units, relative popularity
+    private static final Object[][] MODELS = {
+            {"Toyota", "Corolla", 180, 20}, {"Volkswagen", "Golf", 190, 16}, {"Ford", "Focus", 170, 14},
+            {"Honda", "Civic", 185, 12}, {"Toyota", "RAV4", 290, 10}, {"Hyundai", "Tucson", 280, 8},
+            {"Nissan", "Leaf", 230, 6}, {"Kia", "Sportage", 270, 5}, {"Tesla", "Model 3", 420, 4},
+            {"BMW", "3 Series", 480, 3}, {"Mercedes-Benz", "E-Class", 620, 2}, {"Ford", "Transit", 350, 2},
+    };
+    private static final String[] COLOURS = {"White", "Black", "Silver", "Grey", "Blue", "Red"};
+    private static final Integer[] MILEAGE_LIMITS = {150, 200, 250, 300, null};
+    private static final String[] MECHANICS = {"A. Patel", "J. Murphy", "S. Kowalski", "M. Okafor", "L. Moreau"};
+    private static final String[] SERVICE_ISSUES = {
+            "Annual service", "Oil and filter change", "Brake pads replaced", "Tyre rotation",
+            "Windscreen chip repair", "Battery replaced", "Air conditioning regas", "Wiper blades replaced"};
+    private static final String[] DAMAGE = {
+            "Scratch on the rear bumper", "Dent in the driver door", "Cracked windscreen", "Flat tyre",
+            "Broken side mirror", "Stained rear seats", "Warning light on the dashboard", "Scuffed alloy wheel"};
+    private static final String[] PLACES = {
+            "in the airport car park", "at a petrol station", "on the motorway", "in a multi-storey car park",
+            "while parked on the street", "at the customer's hotel"};
+    private static final String[] FOLLOW_UPS = {
+            "Photos received from the customer", "Repair quote requested from the body shop",
+            "Insurance claim submitted", "Customer disputes the damage", "Repair booked for next week",
+            "Repair completed and invoiced", "Deposit partially withheld", "Closed with no charge to the customer"};
+    private static final String[] AGENTS = {"desk.airport", "desk.city", "claims.team", "fleet.manager"};
+
+    private static final int BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbc;
+    private final Random random;
+
+    SyntheticDataGenerator(ConfigurableApplicationContext context, long seed) {
+        this.context = context;
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param historyDays how far back the booking and maintenance history goes; bookings also
+     *                    extend up to 90 days ahead
+     */
+    Dataset generate(int vehicles, int customers, int historyDays) {
+        LocalDate today = LocalDate.now();
+        long[] customerIds = new FleetSeeder(context, random.nextLong()).seedCustomers(customers);
+        Fleet fleet = seedVehicles(vehicles);
+        long bookings = seedBookings(fleet, customerIds, today.minusDays(historyDays), today.plusDays(90), today);
+        long blocks = seedBlocks(fleet, today);
+        long maintenance = seedMaintenance(fleet, today.minusDays(historyDays), today);
+        long incidents = seedIncidents(today);
+        refreshDerivedState();
+        return new Dataset(fleet.ids, customerIds, bookings, blocks, maintenance, incidents);
+    }
+
+    private Fleet seedVehicles(int count) {
+        int totalWeight = Arrays.stream(MODELS).mapToInt(m -> (int) m[3]).sum();
+        String platePrefix = Long.toString(Math.abs(random.nextLong()) % 46656, 36).toUpperCase();
+        List<Object[]> rows = new ArrayList<>(count);
+        long[] weeklyCents = new long[count];
+        String[] statuses = new String[count];
+        for (int i = 0; i < count; i++) {
+            Object[] model = pickModel(totalWeight);
+            // Newer cars are more common: roughly a third fewer per year of age
+            int age = Math.min(10, (int) (Math.log(1 - random.nextDouble()) / Math.log(0.65)));
+            double segmentNoise = 1 + random.nextGaussian() * 0.05;
+            long weekly = Math.round((int) model[2] * segmentNoise * (1 - age * 0.03) * 100);
+            Integer limit = MILEAGE_LIMITS[random.nextInt(MILEAGE_LIMITS.length)];
+            double statusRoll = random.nextDouble();
+            String status = statusRoll < 0.90 ? "Available" : statusRoll < 0.95 ? "Maintenance" : "Unavailable";
+            rows.add(new Object[]{platePrefix + String.format("-%06d", i), model[0], model[1],
+                    LocalDate.now().getYear() - age, COLOURS[random.nextInt(COLOURS.length)],
+                    limit == null ? null : BigDecimal.valueOf(limit), BigDecimal.valueOf(weekly, 2), status});
+            weeklyCents[i] = weekly;
+            statuses[i] = status;
+        }
+        batch("INSERT INTO Vehicle (LicensePlate, Make, Model, Year, Colour, MileageLimitPerDay, WeeklyRate, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        long[] ids = jdbc.queryForList("SELECT VehicleID FROM Vehicle WHERE LicensePlate LIKE ? ORDER BY VehicleID",
+                Long.class, platePrefix + "-%").stream().mapToLong(Long::longValue).toArray();
+        return new Fleet(ids, weeklyCents, statuses);
+    }
+
+    private Object[] pickModel(int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Object[] model : MODELS) {
+            roll -= (int) model[3];
+            if (roll < 0) {
+                return model;
+            }
+        }
+        return MODELS[0];
+    }
+
+    private long seedBookings(Fleet fleet, long[] customerIds, LocalDate from, LocalDate until, LocalDate today) {
+        Long maxId = jdbc.queryForObject("SELECT MAX(BookingID) FROM Booking", Long.class);
+        long bookingId = maxId == null ? 0 : maxId;
+        long first = bookingId;
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int v = 0; v < fleet.ids.length; v++) {
+            // Some cars sit idle for days between rentals, popular ones are rebooked almost at once
+            double meanGapDays = 0.5 + random.nextDouble() * 6;
+            LocalDate pickup = from.plusDays(random.nextInt(14));
+            while (pickup.isBefore(until)) {
+                // Log-normal length: median three days, occasionally a few weeks
+                int days = (int) Math.max(1, Math.min(28, Math.round(Math.exp(Math.log(3) + random.nextGaussian() * 0.7))));
+                LocalDate returnDate = pickup.plusDays(days);
+                String status;
+                if (random.nextDouble() < 0.07) {
+                    status = "CANCELLED";
+                } else if (returnDate.isBefore(today)) {
+                    status = "COMPLETED";
+                } else {
+                    status = random.nextDouble() < 0.05 ? "PENDING" : "ACTIVE";
+                }
+                // Squaring the roll favours low indexes: a minority of customers makes most bookings
+                double roll = random.nextDouble();
+                long customerId = customerIds[(int) (roll * roll * customerIds.length)];
+                rows.add(new Object[]{++bookingId, customerId, fleet.ids[v], "Customer " + customerId,
+                        Date.valueOf(pickup), Date.valueOf(returnDate),
+                        random.nextInt(3) == 0 ? "City Centre" : "Airport", random.nextInt(3) == 0 ? "City Centre" : "Airport",
+                        price(fleet.weeklyCents[v], days), status});
+                if (rows.size() == BATCH) {
+                    insertBookings(rows);
+                    rows.clear();
+                }
+                // Exponential gap; a returned car can go out again the same day
+                pickup = returnDate.plusDays(Math.round(-Math.log(1 - random.nextDouble()) * meanGapDays));
+            }
+        }
+        insertBookings(rows);
+        // Keep Booking's table generator above the seeded ids (see V1__booking_id_generator.sql)
+        if (jdbc.update("UPDATE id_generator SET next_val = ? WHERE sequence_name = 'Booking'", bookingId + 51) == 0) {
+            jdbc.update("INSERT INTO id_generator (sequence_name, next_val) VALUES ('Booking', ?)", bookingId + 51);
+        }
+        return bookingId - first;
+    }
+
+    // Same formula as QuoteEngine
+    private static BigDecimal price(long weeklyCents, long days) {
+        long partWeek = Math.min(weeklyCents, (weeklyCents * (days % 7) * 2 + 7) / 14);
+        return BigDecimal.valueOf((days / 7) * weeklyCents + partWeek, 2);
+    }
+
+    private void insertBookings(List<Object[]> rows) {
+        batch("INSERT INTO Booking (BookingID, CustomerID, VehicleID, CustomerName, PickupDate, ReturnDate, " +
+                "PickupLocation, ReturnLocation, TotalCost, BookingStatus) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // A few cars are blocked for upcoming work, and some have past blocks in their history
+    private long seedBlocks(Fleet fleet, LocalDate today) {
+        List<BlockedPeriod> blocks = new ArrayList<>();
+        for (long vehicleId : fleet.ids) {
+            double roll = random.nextDouble();
+            if (roll < 0.13) {
+                LocalDate start = roll < 0.08 ? today.plusDays(1 + random.nextInt(60)) : today.minusDays(30 + random.nextInt(300));
+                BlockedPeriod block = new BlockedPeriod();
+                block.setVehicleId(vehicleId);
+                block.setStartDate(start);
+                block.setEndDate(start.plusDays(1 + random.nextInt(7)));
+                block.setReason(roll < 0.04 ? "Bodywork repair" : "Scheduled service");
+                blocks.add(block);
+            }
+        }
+        context.getBean(BlockedPeriodRepository.class).saveAll(blocks);
+        return blocks.size();
+    }
+
+    // A service roughly every three months; cars now in maintenance have an open job
+    private long seedMaintenance(Fleet fleet, LocalDate from, LocalDate today) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        long count = 0;
+        for (int v = 0; v < fleet.ids.length; v++) {
+            LocalDate serviceDate = from.plusDays(random.nextInt(90));
+            while (serviceDate.isBefore(today)) {
+                rows.add(maintenanceRow(fleet.ids[v], serviceDate, "COMPLETED"));
+                serviceDate = serviceDate.plusDays(60 + random.nextInt(60));
+            }
+            if ("Maintenance".equals(fleet.statuses[v])) {
+                rows.add(maintenanceRow(fleet.ids[v], today.minusDays(random.nextInt(5)),
+                        random.nextBoolean() ? "PENDING" : "IN_PROGRESS"));
+            }
+            if (rows.size() >= BATCH) {
+                count += rows.size();
+                insertMaintenance(rows);
+                rows.clear();
+            }
+        }
+        count += rows.size();
+        insertMaintenance(rows);
+        return count;
+    }
+
+    private Object[] maintenanceRow(long vehicleId, LocalDate serviceDate, String status) {
+        // Log-normal cost: most jobs are routine, a few are expensive repairs
+        BigDecimal cost = BigDecimal.valueOf(Math.exp(Math.log(180) + random.nextGaussian() * 0.8))
+                .setScale(2, RoundingMode.HALF_UP);
+        return new Object[]{vehicleId, Date.valueOf(serviceDate), MECHANICS[random.nextInt(MECHANICS.length)], cost,
+                SERVICE_ISSUES[random.nextInt(SERVICE_ISSUES.length)], status, Date.valueOf(serviceDate)};
+    }
+
+    private void insertMaintenance(List<Object[]> rows) {
+        batch("INSERT INTO Maintenance (VehicleID, MaintenanceDate, MechanicName, Cost, issue, status, service_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // About one finished rental in 60 ends with an incident report, most with a few follow-up notes
+    private long seedIncidents(LocalDate today) {
+        List<Map<String, Object>> rentals = jdbc.queryForList(
+                "SELECT BookingID, VehicleID, CustomerID, ReturnDate FROM Booking WHERE BookingStatus = 'COMPLETED'");
+        List<Object[]> rows = new ArrayList<>();
+        for (Map<String, Object> rental : rentals) {
+            if (random.nextInt(60) != 0) {
+                continue;
+            }
+            LocalDate returned = ((Date) rental.get("ReturnDate")).toLocalDate();
+            String description = DAMAGE[random.nextInt(DAMAGE.length)] + " " + PLACES[random.nextInt(PLACES.length)];
+            boolean open = ChronoUnit.DAYS.between(returned, today) < 30 && random.nextBoolean();
+            rows.add(new Object[]{description, Timestamp.valueOf(returned.atTime(9 + random.nextInt(9), random.nextInt(60))),
+                    rental.get("BookingID"), rental.get("VehicleID"), rental.get("CustomerID"), open ? "OPEN" : "RESOLVED"});
+        }
+        batch("INSERT INTO Incident (description, incidentDate, rentalId, vehicleId, customerId, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        List<Map<String, Object>> incidents = jdbc.queryForList("SELECT id, incidentDate FROM Incident");
+        List<Object[]> notes = new ArrayList<>();
+        for (Map<String, Object> incident : incidents) {
+            Timestamp at = (Timestamp) incident.get("incidentDate");
+            // Poisson-ish: each further note is less likely than the one before
+            for (int n = 0; random.nextDouble() < 0.7 / (n + 1); n++) {
+                at = Timestamp.valueOf(at.toLocalDateTime().plusHours(4 + random.nextInt(72)));
+                notes.add(new Object[]{incident.get("id"), AGENTS[random.nextInt(AGENTS.length)],
+                        FOLLOW_UPS[Math.min(FOLLOW_UPS.length - 1, n * 2 + random.nextInt(2))], at});
+            }
+        }
+        batch("INSERT INTO Incident_FollowUp (incidentId, author, notes, createdAt) VALUES (?, ?, ?, ?)", notes);
+        return rows.size();
+    }
+
+    // JDBC writes skip entity listeners, caches and post-commit hooks, so bring those up to date
+    private void refreshDerivedState() {
+        jdbc.update("DELETE FROM Maintenance_Summary");
+        jdbc.update("INSERT INTO Maintenance_Summary (VehicleID, TotalCost, PendingCount, InProgressCount, CompletedCount, LastServiceDate) " +
+                "SELECT VehicleID, COALESCE(SUM(Cost), 0), " +
+                "SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN status = 'IN_PROGRESS' THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+                "MAX(service_date) FROM Maintenance GROUP BY VehicleID");
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        TableVersions tableVersions = context.getBean(TableVersions.class);
+        tableVersions.bump(Vehicle.class);
+        tableVersions.bump(Booking.class);
+        context.getBean(QuoteEngine.class).invalidateAll();
+        context.getBean(VehicleIntervalIndex.class).invalidateAll();
+        context.getBean(FleetCounters.class).reconcile();
+        context.getBean(IncidentSearchIndex.class).rebuild();
+        AvailabilitySnapshot snapshot = context.getBean(AvailabilitySnapshot.class);
+        snapshot.invalidateAll();
+        snapshot.refresh();
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+
+    public static void main(String[] args) {
+        CommandLineOptions options = CommandLineOptions.parse(args, "vehicles", "customers", "history-days", "seed");
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(options.springArgs())) {
+            Dataset dataset = new SyntheticDataGenerator(context, options.longValue("seed", 42))
+                    .generate(options.intValue("vehicles", 1000), options.intValue("customers", 5000),
+                            options.intValue("history-days", 730));
+            System.out.println(dataset);
+        }
+    }
+
+    private record Fleet(long[] ids, long[] weeklyCents, String[] statuses) {
+    }
+
+    record Dataset(long[] vehicleIds, long[] customerIds, long bookings, long blockedPeriods,
+                   long maintenance, long incidents) {
+        @Override
+        public String toString() {
+            return String.format("Seeded %d vehicles, %d customers, %d bookings, %d blocked periods, "
+                            + "%d maintenance rows, %d incidents",
+                    vehicleIds.length, customerIds.length, bookings, blockedPeriods, maintenance, incidents);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.carrental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load on the existing read endpoints over HTTP, with request handling on Tomcat's
+ * platform worker pool or on virtual threads ({@code spring.threads.virtual.enabled}). Each
+ * operation is a burst of {@code clients} concurrent requests against a mix of the vehicle list,
+ * the availability dashboard, the stats card and single availability checks, so the score is the
+ * time until the slowest request of the burst completes. Bursts larger than Tomcat's worker pool
+ * show where platform threads start queueing; the Hikari pool is the same in both modes.
+ * <p>
+ * Run the pinning check alongside: with {@code threads=virtual} any pin longer than 20 ms is
+ * logged by {@code VirtualThreadPinningMonitor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ThreadModeLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"100", "1000"})
+    int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient http;
+    private String baseUrl;
+    private long[] vehicleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                "--server.tomcat.threads.max=200",
+                "--server.tomcat.accept-count=" + (clients * 2),
+                "--server.tomcat.max-connections=" + (clients * 2),
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.datasource.hikari.connection-timeout=30000",
+                "--logging.level.org.hibernate.SQL=WARN");
+        vehicleIds = new FleetSeeder(context, 19).seed(200, 20);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        // The client side never becomes the bottleneck: one virtual thread per outstanding request
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath()))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            responses.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int failures = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) {
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            throw new IllegalStateException(failures + " of " + clients + " requests failed");
+        }
+        return clients;
+    }
+
+    // Weighted towards the cheap availability check, as the booking form calls it on every change
+    private String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(10);
+        if (pick < 5) {
+            LocalDate start = LocalDate.now().plusDays(random.nextInt(-30, 60));
+            return "/api/availability/check-availability?vehicleId=" + vehicleIds[random.nextInt(vehicleIds.length)]
+                    + "&startDate=" + start + "&endDate=" + start.plusDays(3);
+        }
+        if (pick < 7) {
+            return "/api/vehicles";
+        }
+        if (pick < 9) {
+            return "/api/availability/vehicles";
+        }
+        return "/api/availability/stats";
+    }
+}
@@ -0,0 +1,62 @@
+package com.carrental.benchmark;
+
+import com.carrental.carrental.service.FleetColumns;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utilization over a one-year window from columns holding up to 5 million bookings, with
+ * blocked periods and maintenance days, for a 10,000-vehicle fleet. The columns are built
+ * in memory, as the loader would after reading the database, so only the aggregation is measured.
+ * The target is well under a second for 5 million rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UtilizationAnalyticsBenchmark {
+
+    private static final int FLEET_SIZE = 10_000;
+    private static final int HISTORY_DAYS = 3 * 365;
+
+    @Param({"1000000", "5000000"})
+    int bookings;
+
+    private FleetColumns columns;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(25);
+        long today = LocalDate.now().toEpochDay();
+        long firstDay = today - HISTORY_DAYS;
+        FleetColumns.Builder builder = FleetColumns.builder();
+        for (int v = 1; v <= FLEET_SIZE; v++) {
+            builder.addVehicle(v, "Make " + (v % 8), "Model " + (v % 40));
+        }
+        for (int i = 0; i < bookings; i++) {
+            long pickup = firstDay + random.nextInt(HISTORY_DAYS);
+            builder.addBooking(1 + random.nextInt(FLEET_SIZE), pickup, pickup + 1 + random.nextInt(10),
+                    5_000 + random.nextInt(100_000));
+        }
+        for (int i = 0; i < FLEET_SIZE * 3; i++) {
+            long start = firstDay + random.nextInt(HISTORY_DAYS);
+            builder.addBlock(1 + random.nextInt(FLEET_SIZE), start, start + random.nextInt(7));
+            builder.addMaintenanceDay(1 + random.nextInt(FLEET_SIZE), firstDay + random.nextInt(HISTORY_DAYS));
+        }
+        columns = builder.build();
+        to = LocalDate.ofEpochDay(today);
+        from = to.minusDays(365);
+    }
+
+    @Benchmark
+    public FleetColumns.Totals aggregateYear() {
+        return columns.aggregate(from, to);
+    }
+}
@@ -0,0 +1,59 @@
+package com.carrental.carrental.config;
+
+import com.carrental.carrental.metrics.SqlStatementCounter;
+import com.carrental.carrental.security.UserDetailsCache;
+import com.carrental.carrental.service.JwtService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Metrics scraped from {@code /actuator/prometheus}. HTTP latency comes from the actuator's
+ * {@code http.server.requests}; this adds histograms, Hibernate statistics, the per-request
+ * SQL statement count and the Caffeine caches used on the authentication path. The endpoint is
+ * exposed by {@code metrics.properties}.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    // Publish histogram buckets so percentiles can be aggregated across instances
+    @Bean
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().startsWith("http.server.requests") || id.getName().startsWith("carrental.")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    // Anything set in application.properties wins
+    @Bean
+    public HibernatePropertiesCustomizer statisticsCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent("hibernate.generate_statistics", true);
+            hibernateProperties.putIfAbsent("hibernate.session_factory.statement_inspector", new SqlStatementCounter());
+        };
+    }
+
+    @Bean
+    public MeterBinder authCacheMetrics(JwtService jwtService, UserDetailsCache userDetailsCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, jwtService.getVerifiedTokenCache(), "jwt.verified-tokens");
+            CaffeineCacheMetrics.monitor(registry, userDetailsCache.getCache(), "jwt.user-details");
+        };
+    }
+}
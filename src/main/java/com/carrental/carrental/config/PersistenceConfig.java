@@ -0,0 +1,66 @@
+package com.carrental.carrental.config;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Value("${persistence.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    // Batch inserts/updates; anything set in application.properties wins
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+            hibernateProperties.putIfAbsent("hibernate.order_updates", true);
+            hibernateProperties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+        };
+    }
+
+    /**
+     * The database predates the migrations, so an existing one is adopted as version 0 and gets
+     * everything after that. An empty one runs V0, which creates the tables the later migrations
+     * build on. Scripts that cannot be written portably (identity columns, TEXT vs CLOB) live in
+     * {@code db/vendor/<mysql|h2>} next to the shared {@code db/migration}.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> {
+            configuration.baselineOnMigrate(true).baselineVersion("0");
+            String vendorLocation = "classpath:db/vendor/" + databaseVendor(configuration.getDataSource());
+            configuration.locations(Stream.concat(
+                            Arrays.stream(configuration.getLocations()).map(Location::getDescriptor),
+                            Stream.of(vendorLocation))
+                    .distinct()
+                    .toArray(String[]::new));
+        };
+    }
+
+    private static String databaseVendor(DataSource dataSource) {
+        try {
+            String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+            DatabaseDriver driver = DatabaseDriver.fromJdbcUrl(url);
+            if (driver != DatabaseDriver.MYSQL && driver != DatabaseDriver.H2) {
+                throw new IllegalStateException("No migrations for database " + url);
+            }
+            return driver.getId();
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine the database vendor", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.carrental.carrental.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split between the primary database and a replica, enabled with
+ * {@code replica.enabled=true} (see {@code application-read-replica.properties}).
+ * <p>
+ * Both pools are Hikari pools named {@code primary} and {@code replica}, so the actuator's
+ * {@code hikaricp.connections.*} metrics are already split per route. This adds
+ * {@code carrental.datasource.connections} (connections handed out, tagged by route and reason)
+ * and {@code carrental.replica.lag}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Same spring.datasource.* settings the auto-configured pool would have used
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                                 @Qualifier("replicaDataSource") DataSource replica,
+                                                                 ReplicaLagMonitor lagMonitor) {
+        return new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    // What JPA, JdbcTemplate and Flyway get: the route is picked at the first statement, after the
+    // transaction has set its read-only flag
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(ReadWriteRoutingDataSource router, ReplicaLagMonitor lagMonitor) {
+        return registry -> {
+            for (ReadWriteRoutingDataSource.Decision decision : ReadWriteRoutingDataSource.Decision.values()) {
+                FunctionCounter.builder("carrental.datasource.connections", router, r -> r.count(decision))
+                        .description("Connections handed out by the read/write router")
+                        .tag("route", decision.getRoute())
+                        .tag("reason", decision.getReason())
+                        .register(registry);
+            }
+            Gauge.builder("carrental.replica.lag", lagMonitor, ReplicaLagMonitor::getLagMillis)
+                    .description("Replication lag at the last heartbeat check, -1 before the first")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("carrental.replica.within.budget", lagMonitor,
+                            m -> m.state() == ReplicaLagMonitor.State.WITHIN_BUDGET ? 1 : 0)
+                    .description("1 while read-only transactions are routed to the replica")
+                    .register(registry);
+        };
+    }
+}
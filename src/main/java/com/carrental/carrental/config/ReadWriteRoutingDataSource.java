@@ -0,0 +1,110 @@
+package com.carrental.carrental.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections to read-only transactions while {@link ReplicaLagMonitor} finds
+ * the replica within its staleness budget, and primary connections for everything else. Work
+ * outside a transaction goes to the primary too, so nothing reads its own writes from a replica.
+ * <p>
+ * The read-only flag is only set once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    /**
+     * Why a connection went where it did; each decision is counted.
+     */
+    public enum Decision {
+        WRITE("primary", "write"),
+        READ("replica", "read"),
+        REPLICA_LAGGING("primary", "replica-lagging"),
+        REPLICA_UNAVAILABLE("primary", "replica-unavailable");
+
+        private final String route;
+        private final String reason;
+
+        Decision(String route, String reason) {
+            this.route = route;
+            this.reason = reason;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Map<Decision, LongAdder> counts = new EnumMap<>(Decision.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        for (Decision decision : Decision.values()) {
+            counts.put(decision, new LongAdder());
+        }
+    }
+
+    public long count(Decision decision) {
+        return counts.get(decision).sum();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary(source, Decision.WRITE);
+        }
+        switch (lagMonitor.state()) {
+            case LAGGING:
+                return primary(source, Decision.REPLICA_LAGGING);
+            case UNAVAILABLE:
+                return primary(source, Decision.REPLICA_UNAVAILABLE);
+            default:
+                break;
+        }
+        try {
+            Connection connection = source.from(replica);
+            counts.get(Decision.READ).increment();
+            return connection;
+        } catch (SQLException e) {
+            // Pool exhausted or replica down: serve the read from the primary rather than fail it
+            lagMonitor.replicaFailed(e);
+            return primary(source, Decision.REPLICA_UNAVAILABLE);
+        }
+    }
+
+    private Connection primary(ConnectionSource source, Decision decision) throws SQLException {
+        Connection connection = source.from(primary);
+        counts.get(decision).increment();
+        return connection;
+    }
+}
@@ -0,0 +1,112 @@
+package com.carrental.carrental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures how far the replica trails the primary. Each tick stamps the current time into
+ * {@code replica_heartbeat} on the primary and reads it back from the replica: a replica that is
+ * caught up returns the stamp just written, one that lags returns an older one, and the difference
+ * is the lag.
+ * <p>
+ * The replica is used only while the last check succeeded, found it within
+ * {@code replica.staleness-budget-ms}, and is itself recent. A replica that cannot be reached, or
+ * a check that stalls, sends reads back to the primary until the next good check.
+ */
+@Component
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    public enum State { WITHIN_BUDGET, LAGGING, UNAVAILABLE }
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long budgetMillis;
+    private final long heartbeatMillis;
+
+    private volatile long lagMillis = -1;
+    private volatile long checkedAt;
+    private volatile boolean reachable;
+    private volatile State lastState = State.UNAVAILABLE;
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             @Value("${replica.staleness-budget-ms:1000}") long budgetMillis,
+                             @Value("${replica.heartbeat-ms:250}") long heartbeatMillis) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.budgetMillis = budgetMillis;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.heartbeat-ms:250}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now);
+        } catch (DataAccessException e) {
+            // Without a fresh stamp the lag reads high and reads move to the primary, which is the safe side
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+        try {
+            Long beatAt = replica.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+            lagMillis = beatAt == null ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - beatAt);
+            checkedAt = System.currentTimeMillis();
+            reachable = true;
+        } catch (DataAccessException e) {
+            reachable = false;
+            log.debug("Replica heartbeat check failed", e);
+        }
+        logTransition(state());
+    }
+
+    public State state() {
+        if (!reachable) {
+            return State.UNAVAILABLE;
+        }
+        // Past the budget plus one interval the last reading can no longer vouch for the replica
+        if (lagMillis > budgetMillis || System.currentTimeMillis() - checkedAt > budgetMillis + heartbeatMillis) {
+            return State.LAGGING;
+        }
+        return State.WITHIN_BUDGET;
+    }
+
+    /**
+     * Lag at the last successful check, or -1 before the first one.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    // Called by the router when the replica pool fails to hand out a connection
+    void replicaFailed(Exception e) {
+        reachable = false;
+        log.debug("Replica connection failed", e);
+        logTransition(State.UNAVAILABLE);
+    }
+
+    private void logTransition(State state) {
+        State previous = lastState;
+        lastState = state;
+        if (previous == state) {
+            return;
+        }
+        if (state == State.WITHIN_BUDGET) {
+            log.info("Read-only transactions routed to the replica (lag {} ms)", lagMillis);
+        } else {
+            log.warn("Read-only transactions routed to the primary: replica {} (lag {} ms, budget {} ms)",
+                    state == State.LAGGING ? "lagging" : "unavailable", lagMillis, budgetMillis);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.carrental.carrental.config;
+
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.VehicleRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache, held in-process by Caffeine through JCache. Regions are created
+ * here so that each one is bounded; hit and miss counts per region come from the Hibernate
+ * statistics published by {@link MetricsConfig}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${cache.vehicle.max-size:10000}")
+    private long vehicleMaxSize;
+
+    @Value("${cache.vehicle-queries.max-size:100}")
+    private long vehicleQueriesMaxSize;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        createBounded(cacheManager, Vehicle.CACHE_REGION, vehicleMaxSize);
+        createBounded(cacheManager, VehicleRepository.QUERY_CACHE_REGION, vehicleQueriesMaxSize);
+        return cacheManager;
+    }
+
+    // Anything set in application.properties wins
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent("hibernate.cache.use_second_level_cache", true);
+            hibernateProperties.putIfAbsent("hibernate.cache.use_query_cache", true);
+            hibernateProperties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.putIfAbsent("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // Hibernate's own regions (update timestamps, default query results) are created on demand
+            hibernateProperties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "create");
+        };
+    }
+
+    private static void createBounded(CacheManager cacheManager, String name, long maxSize) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
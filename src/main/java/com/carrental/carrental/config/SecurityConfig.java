@@ -1,9 +1,9 @@
 package com.carrental.carrental.config;
 
 import com.carrental.carrental.security.JwtAuthenticationFilter;
+import com.carrental.carrental.security.UserDetailsCache;
 import com.carrental.carrental.service.CustomUserDetailsService;
 import com.carrental.carrental.service.JwtService;
-import com.carrental.carrental.service.UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,15 +27,16 @@ public class SecurityConfig {
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder; // Inject PasswordEncoder
-    private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
 
     public SecurityConfig(CustomUserDetailsService customUserDetailsService,
                           JwtService jwtService,
-                          PasswordEncoder passwordEncoder, UserService userService) {
+                          PasswordEncoder passwordEncoder,
+                          UserDetailsCache userDetailsCache) {
         this.customUserDetailsService = customUserDetailsService;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
-        this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     // Remove the passwordEncoder() @Bean method from here
@@ -55,7 +56,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userService,customUserDetailsService);
+        return new JwtAuthenticationFilter(jwtService, userDetailsCache);
     }
 
     @Bean
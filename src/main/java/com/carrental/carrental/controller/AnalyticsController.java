@@ -0,0 +1,46 @@
+package com.carrental.carrental.controller;
+
+import com.carrental.carrental.dto.IdleGapDTO;
+import com.carrental.carrental.dto.RevenuePerDayDTO;
+import com.carrental.carrental.dto.UtilizationDTO;
+import com.carrental.carrental.service.UtilizationAnalytics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Fleet reports over [from, to), e.g. /utilization?from=2025-01-01&to=2025-04-01&groupBy=model
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final UtilizationAnalytics utilizationAnalytics;
+
+    public AnalyticsController(UtilizationAnalytics utilizationAnalytics) {
+        this.utilizationAnalytics = utilizationAnalytics;
+    }
+
+    @GetMapping("/utilization")
+    public ResponseEntity<List<UtilizationDTO>> utilization(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "vehicle") String groupBy) {
+        return ResponseEntity.ok(utilizationAnalytics.utilization(LocalDate.parse(from), LocalDate.parse(to), groupBy));
+    }
+
+    @GetMapping("/idle-gaps")
+    public ResponseEntity<List<IdleGapDTO>> idleGaps(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "vehicle") String groupBy) {
+        return ResponseEntity.ok(utilizationAnalytics.idleGaps(LocalDate.parse(from), LocalDate.parse(to), groupBy));
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenuePerDayDTO>> revenuePerDay(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "vehicle") String groupBy) {
+        return ResponseEntity.ok(utilizationAnalytics.revenuePerDay(LocalDate.parse(from), LocalDate.parse(to), groupBy));
+    }
+}
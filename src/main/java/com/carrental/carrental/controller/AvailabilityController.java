@@ -2,12 +2,25 @@ package com.carrental.carrental.controller;
 
 import com.carrental.carrental.dto.*;
 import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.service.AvailabilityEventStream;
 import com.carrental.carrental.service.AvailabilityService;
+import com.carrental.carrental.service.AvailabilitySnapshot;
+import com.carrental.carrental.service.TableVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,31 +31,99 @@ public class AvailabilityController {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private AvailabilitySnapshot availabilitySnapshot;
+
+    @Autowired
+    private AvailabilityEventStream availabilityEventStream;
+
     @GetMapping("/stats")
     public ResponseEntity<AvailabilityStatsDTO> getAvailabilityStats() {
         AvailabilityStatsDTO stats = availabilityService.getAvailabilityStats();
         return ResponseEntity.ok(stats);
     }
 
+    // Push feed of {vehicleId, status, nextAvailable} changes; EventSource resumes via Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return availabilityEventStream.subscribe(lastEventId);
+    }
+
     @GetMapping("/vehicles")
-    public ResponseEntity<List<VehicleAvailabilityDTO>> getAllVehiclesWithAvailability() {
-        List<VehicleAvailabilityDTO> vehicles = availabilityService.getAllVehiclesWithAvailability();
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<VehicleAvailabilityDTO>> getAllVehiclesWithAvailability(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        // The rows come from the snapshot, so its version is what the client has seen
+        String etag = availabilitySnapshot.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<VehicleAvailabilityDTO> vehicles = availabilityService.getVehiclesWithAvailability(
+                null, toPageable(page, size, sort));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Total-Count", String.valueOf(vehicles.getTotalElements()))
+                .body(vehicles.getContent());
     }
 
     @GetMapping("/vehicles/{status}")
-    public ResponseEntity<List<VehicleAvailabilityDTO>> getVehiclesByStatus(@PathVariable String status) {
-        List<VehicleAvailabilityDTO> allVehicles = availabilityService.getAllVehiclesWithAvailability();
-        List<VehicleAvailabilityDTO> filteredVehicles = allVehicles.stream()
-                .filter(vehicle -> vehicle.getStatus().name().equalsIgnoreCase(status))
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(filteredVehicles);
+    public ResponseEntity<List<VehicleAvailabilityDTO>> getVehiclesByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        String etag = availabilitySnapshot.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<VehicleAvailabilityDTO> vehicles = availabilityService.getVehiclesWithAvailability(
+                status, toPageable(page, size, sort));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Total-Count", String.valueOf(vehicles.getTotalElements()))
+                .body(vehicles.getContent());
+    }
+
+    @GetMapping("/free")
+    public ResponseEntity<List<VehicleDTO>> getFreeVehicles(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) String model,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<VehicleDTO> vehicles = availabilityService.findFreeVehicles(
+                java.time.LocalDate.parse(startDate), java.time.LocalDate.parse(endDate),
+                make, model, PageRequest.of(page, size, Sort.by("id")));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(vehicles.getTotalElements()))
+                .body(vehicles.getContent());
     }
 
     @GetMapping("/blocked-periods")
-    public ResponseEntity<List<BlockedPeriodDTO>> getAllBlockedPeriods() {
+    public ResponseEntity<List<BlockedPeriodDTO>> getAllBlockedPeriods(WebRequest request) {
+        // Only blocks that have not ended are listed, so the result also depends on the date
+        String etag = tableVersions.etag(LocalDate.now(), BlockedPeriod.class, Vehicle.class);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<BlockedPeriodDTO> blockedPeriods = availabilityService.getAllBlockedPeriods();
-        return ResponseEntity.ok(blockedPeriods);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(blockedPeriods);
     }
 
     @PostMapping("/block")
@@ -72,4 +153,17 @@ public class AvailabilityController {
                 vehicleId, java.time.LocalDate.parse(startDate), java.time.LocalDate.parse(endDate));
         return ResponseEntity.ok(isAvailable);
     }
+
+    // Without a page parameter the whole (sorted) list is returned, as before
+    private Pageable toPageable(Integer page, int size, String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!AvailabilitySnapshot.sortableProperties().contains(property)) {
+            throw new IllegalArgumentException("Cannot sort vehicles by: " + property);
+        }
+        Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return page == null ? Pageable.unpaged(order) : PageRequest.of(page, size, order);
+    }
 }
\ No newline at end of file
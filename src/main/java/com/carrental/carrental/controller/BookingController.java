@@ -1,12 +1,22 @@
 package com.carrental.carrental.controller;
 
+import com.carrental.carrental.dto.BookingPageDTO;
+import com.carrental.carrental.dto.BookingSearchRequest;
 import com.carrental.carrental.dto.BookingWithEmailDTO;
+import com.carrental.carrental.dto.ImportResultDTO;
 import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.service.BookingImportService;
+import com.carrental.carrental.service.BookingReservationService;
 import com.carrental.carrental.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,12 +27,33 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingReservationService bookingReservationService;
+
+    @Autowired
+    private BookingImportService bookingImportService;
+
     @GetMapping
     public ResponseEntity<List<BookingWithEmailDTO>> getAllBookingsWithEmail() {
         List<BookingWithEmailDTO> bookings = bookingService.getAllBookingsWithEmail();
         return ResponseEntity.ok(bookings);
     }
 
+    // Keyset-paginated listing, e.g. /page?status=ACTIVE&sort=pickupDate&afterPickupDate=...&afterId=...
+    @GetMapping("/page")
+    public ResponseEntity<BookingPageDTO> getBookingsPage(@ModelAttribute BookingSearchRequest request) {
+        return ResponseEntity.ok(bookingService.getBookingsPage(request));
+    }
+
+    // Same filters as /page, streamed as newline-delimited JSON
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings(@ModelAttribute BookingSearchRequest request) {
+        StreamingResponseBody body = out -> bookingService.streamBookings(request, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingWithEmailDTO> getBookingById(@PathVariable Long id) {
         BookingWithEmailDTO booking = bookingService.getBookingWithEmailById(id);
@@ -31,10 +62,20 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Booking> createBooking(@RequestBody Booking booking) {
-        Booking createdBooking = bookingService.createBooking(booking);
+        Booking createdBooking = bookingReservationService.reserve(booking);
         return ResponseEntity.ok(createdBooking);
     }
 
+    // Bulk import from a JSON array or from CSV with a header row; the body is read as a stream
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportResultDTO> importBookings(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) throws IOException {
+        ImportResultDTO result = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? bookingImportService.importJson(body)
+                : bookingImportService.importCsv(body);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @RequestBody Booking booking) {
         booking.setId(id);
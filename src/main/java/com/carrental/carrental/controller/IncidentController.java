@@ -6,10 +6,17 @@ package com.carrental.carrental.controller;
 import com.carrental.carrental.dto.FollowUpRequest;
 import com.carrental.carrental.dto.IncidentRequest;
 import com.carrental.carrental.model.Incident;
+import com.carrental.carrental.model.IncidentFollowUp;
 import com.carrental.carrental.service.IncidentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
@@ -43,9 +50,45 @@ public class IncidentController {
         return ResponseEntity.ok(service.getByCustomer(customerId));
     }
 
+    // Best match first; matches any of the words in q
+    @GetMapping("/search")
+    public ResponseEntity<List<Incident>> search(@RequestParam String q,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 100");
+        }
+        Page<Incident> results = service.search(q, PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
+    }
+
+    // Kept for existing clients; appends a note like POST /{id}/followups and returns the incident
+    // with all notes in followUpNotes, as before the notes moved to their own table
     @PutMapping("/{id}/followup")
     public ResponseEntity<Incident> addFollowUp(@PathVariable Long id, @Valid @RequestBody FollowUpRequest request) {
-        return ResponseEntity.ok(service.addFollowUp(id, request.getNotes()));
+        service.addFollowUp(id, request.getNotes(), author(request));
+        return ResponseEntity.ok(service.getWithAllFollowUpNotes(id));
+    }
+
+    @PostMapping("/{id}/followups")
+    public ResponseEntity<IncidentFollowUp> appendFollowUp(@PathVariable Long id, @Valid @RequestBody FollowUpRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.addFollowUp(id, request.getNotes(), author(request)));
+    }
+
+    // Oldest first, so long claims read like a log
+    @GetMapping("/{id}/followups")
+    public ResponseEntity<List<IncidentFollowUp>> viewFollowUps(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > 500) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 500");
+        }
+        Page<IncidentFollowUp> followUps = service.getFollowUps(id, PageRequest.of(page, size, Sort.by("id")));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(followUps.getTotalElements()))
+                .body(followUps.getContent());
     }
 
     @DeleteMapping("/{id}")
@@ -54,6 +97,15 @@ public class IncidentController {
         return ResponseEntity.noContent().build();
     }
 
+    private String author(FollowUpRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return request.getAuthor();
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
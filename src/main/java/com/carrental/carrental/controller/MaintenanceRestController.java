@@ -3,6 +3,11 @@ package com.carrental.carrental.controller;
 import com.carrental.carrental.model.Maintenance;
 import com.carrental.carrental.service.MaintenanceService;
 import com.carrental.carrental.dto.MaintenanceDTO;
+import com.carrental.carrental.dto.MaintenanceSummaryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,13 +23,31 @@ public class MaintenanceRestController {
         this.maintenanceService = maintenanceService;
     }
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("serviceDate"), Sort.Order.desc("id"));
+
+    // Newest service first; without page the whole history is returned as before
     @GetMapping("/car/{carId}") // ✅ Matches frontend
-    public ResponseEntity<List<MaintenanceDTO>> getByCar(@PathVariable Long carId) {
-        List<Maintenance> maintenanceList = maintenanceService.getMaintenanceHistoryByCar(carId);
-        List<MaintenanceDTO> dtoList = maintenanceList.stream()
+    public ResponseEntity<List<MaintenanceDTO>> getByCar(
+            @PathVariable Long carId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page != null && (page < 0 || size < 1 || size > 500)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Pageable pageable = page == null ? Pageable.unpaged(NEWEST_FIRST) : PageRequest.of(page, size, NEWEST_FIRST);
+        Page<Maintenance> maintenancePage = maintenanceService.getMaintenanceHistoryByCar(carId, pageable);
+        List<MaintenanceDTO> dtoList = maintenancePage.stream()
                 .map(MaintenanceDTO::new)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtoList);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(maintenancePage.getTotalElements()))
+                .body(dtoList);
+    }
+
+    // Total cost, count per status and last service date, read from the rollup row
+    @GetMapping("/car/{carId}/summary")
+    public ResponseEntity<MaintenanceSummaryDTO> getSummaryByCar(@PathVariable Long carId) {
+        return ResponseEntity.ok(new MaintenanceSummaryDTO(maintenanceService.getMaintenanceSummary(carId)));
     }
 
     @PutMapping("/{id}")
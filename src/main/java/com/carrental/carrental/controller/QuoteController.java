@@ -0,0 +1,35 @@
+package com.carrental.carrental.controller;
+
+import com.carrental.carrental.dto.QuoteDTO;
+import com.carrental.carrental.service.QuoteEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quotes")
+public class QuoteController {
+    private final QuoteEngine quoteEngine;
+
+    public QuoteController(QuoteEngine quoteEngine) {
+        this.quoteEngine = quoteEngine;
+    }
+
+    @GetMapping
+    public ResponseEntity<QuoteDTO> quote(
+            @RequestParam Long vehicleId,
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        return ResponseEntity.ok(quoteEngine.quote(vehicleId, LocalDate.parse(startDate), LocalDate.parse(endDate)));
+    }
+
+    // Every vehicle with a weekly rate, in id order, e.g. to show prices next to search results
+    @GetMapping("/fleet")
+    public ResponseEntity<List<QuoteDTO>> quoteFleet(
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        return ResponseEntity.ok(quoteEngine.quoteFleet(LocalDate.parse(startDate), LocalDate.parse(endDate)));
+    }
+}
@@ -1,13 +1,23 @@
 package com.carrental.carrental.controller;
 
 import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.dto.ImportResultDTO;
 import com.carrental.carrental.dto.VehicleDTO;
+import com.carrental.carrental.service.TableVersions;
+import com.carrental.carrental.service.VehicleCsvService;
 import com.carrental.carrental.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,21 +25,52 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/vehicles")  // Changed from "/api/cars" to match React frontend
 public class VehicleController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final VehicleService vehicleService;
+    private final VehicleCsvService vehicleCsvService;
+    private final TableVersions tableVersions;
 
     @Autowired
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, VehicleCsvService vehicleCsvService,
+                             TableVersions tableVersions) {
         this.vehicleService = vehicleService;
+        this.vehicleCsvService = vehicleCsvService;
+        this.tableVersions = tableVersions;
     }
 
     // Get all vehicles (for dropdown selection)
     @GetMapping
-    public ResponseEntity<List<VehicleDTO>> getAllVehicles() {
+    public ResponseEntity<List<VehicleDTO>> getAllVehicles(WebRequest request) {
+        // Answer If-None-Match from the change version before loading the fleet
+        String etag = tableVersions.etag(null, Vehicle.class);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<Vehicle> vehicles = vehicleService.getAllCars();
         List<VehicleDTO> vehicleDTOs = vehicles.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(vehicleDTOs);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(vehicleDTOs);
+    }
+
+    // Whole fleet as CSV, written straight to the response
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportVehicles() {
+        StreamingResponseBody body = vehicleCsvService::exportCsv;
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vehicles.csv\"")
+                .body(body);
+    }
+
+    // Bulk upsert keyed on licence plate, same columns as the export
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDTO> importVehicles(InputStream body) throws IOException {
+        return ResponseEntity.ok(vehicleCsvService.importCsv(body));
     }
 
     // Get vehicle by ID (for validation)
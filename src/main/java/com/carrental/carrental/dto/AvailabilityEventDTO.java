@@ -0,0 +1,18 @@
+package com.carrental.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Pushed on /api/availability/stream; a deleted vehicle has no status or nextAvailable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityEventDTO {
+    private Long vehicleId;
+    private String status;
+    private LocalDate nextAvailable;
+    private boolean deleted;
+}
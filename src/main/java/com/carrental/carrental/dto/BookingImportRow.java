@@ -0,0 +1,24 @@
+package com.carrental.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One booking of a bulk import; CSV headers use the same names
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingImportRow {
+    private Long vehicleId;
+    private Long customerId;
+    private String customerName;
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    private String pickupLocation;
+    private String returnLocation;
+    private BigDecimal totalCost;
+    private String bookingStatus;
+}
@@ -0,0 +1,19 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPageDTO {
+    private List<BookingWithEmailDTO> bookings;
+    private boolean hasMore;
+
+    // Pass these back as afterId / afterPickupDate to fetch the next page
+    private Long nextAfterId;
+    private LocalDate nextAfterPickupDate;
+}
@@ -0,0 +1,32 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class BookingSearchRequest {
+    // Filters (all optional)
+    private String status;
+    private Long vehicleId;
+    private Long customerId;
+
+    // Bookings overlapping [from, to]
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    // "id" or "pickupDate"
+    private String sort = "id";
+
+    // Keyset cursor: the last row of the previous page
+    private Long afterId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate afterPickupDate;
+
+    private int limit = 100;
+}
@@ -6,4 +6,6 @@ import lombok.Data;
 @Data
 public class FollowUpRequest {
     private String notes;
+    // Used when the request is not authenticated; otherwise the signed-in user is the author
+    private String author;
 }
\ No newline at end of file
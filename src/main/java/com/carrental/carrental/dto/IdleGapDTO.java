@@ -0,0 +1,22 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdleGapDTO {
+    // Null on per-model rows
+    private Long vehicleId;
+    private String make;
+    private String model;
+    private int vehicles;
+    private long idleDays;
+    // Runs of consecutive days not rented, blocked or in maintenance
+    private long gaps;
+    private BigDecimal averageGapDays;
+    private int longestGapDays;
+}
@@ -0,0 +1,14 @@
+package com.carrental.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Row numbers are 1-based and do not count a CSV header line
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    private long row;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResultDTO {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public void addError(long row, String message) {
+        failed++;
+        errors.add(new ImportErrorDTO(row, message));
+    }
+}
@@ -0,0 +1,32 @@
+package com.carrental.carrental.dto;
+
+import com.carrental.carrental.enums.MaintenanceStatus;
+import com.carrental.carrental.model.MaintenanceSummary;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class MaintenanceSummaryDTO {
+    private Long vehicleId;
+    private BigDecimal totalCost;
+    private long totalCount;
+    private Map<MaintenanceStatus, Integer> countByStatus;
+    private LocalDate lastServiceDate;
+
+    public MaintenanceSummaryDTO(MaintenanceSummary summary) {
+        this.vehicleId = summary.getVehicleId();
+        this.totalCost = summary.getTotalCost();
+        this.countByStatus = new EnumMap<>(MaintenanceStatus.class);
+        this.countByStatus.put(MaintenanceStatus.PENDING, summary.getPendingCount());
+        this.countByStatus.put(MaintenanceStatus.IN_PROGRESS, summary.getInProgressCount());
+        this.countByStatus.put(MaintenanceStatus.COMPLETED, summary.getCompletedCount());
+        this.totalCount = (long) summary.getPendingCount() + summary.getInProgressCount() + summary.getCompletedCount();
+        this.lastServiceDate = summary.getLastServiceDate();
+    }
+}
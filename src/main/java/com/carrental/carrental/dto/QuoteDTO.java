@@ -0,0 +1,20 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteDTO {
+    private Long vehicleId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long days;
+    private BigDecimal totalCost;
+    // Null when the vehicle has no mileage limit
+    private BigDecimal includedMileage;
+}
@@ -0,0 +1,24 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenuePerDayDTO {
+    // Null on per-model rows
+    private Long vehicleId;
+    private String make;
+    private String model;
+    private int vehicles;
+    // Booking totals spread evenly over their days, counting only the days in the window
+    private BigDecimal revenue;
+    private long rentedDays;
+    // Per vehicle-day in the window
+    private BigDecimal revenuePerDay;
+    // Null when nothing was rented
+    private BigDecimal revenuePerRentedDay;
+}
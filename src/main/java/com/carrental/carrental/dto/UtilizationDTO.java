@@ -0,0 +1,27 @@
+package com.carrental.carrental.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationDTO {
+    // Null on per-model rows
+    private Long vehicleId;
+    private String make;
+    private String model;
+    private int vehicles;
+    // Window length times the number of vehicles
+    private long vehicleDays;
+    private long rentedDays;
+    private long blockedDays;
+    private long maintenanceDays;
+    private long idleDays;
+    private BigDecimal rentedPercent;
+    private BigDecimal blockedPercent;
+    private BigDecimal maintenancePercent;
+    private BigDecimal idlePercent;
+}
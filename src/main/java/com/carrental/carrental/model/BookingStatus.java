@@ -0,0 +1,38 @@
+package com.carrental.carrental.model;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Allowed values of {@code Booking.BookingStatus}; the column has a CHECK constraint on them.
+ * CONFIRMED and ACTIVE bookings hold their vehicle and are the only ones that take part in
+ * overlap checks; PENDING ones do not reserve anything yet.
+ */
+public class BookingStatus {
+    public static final String PENDING = "PENDING";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String ACTIVE = "ACTIVE";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+
+    public static final Set<String> ALL = Set.of(PENDING, CONFIRMED, ACTIVE, COMPLETED, CANCELLED);
+    // Kept in step with the IN ('ACTIVE', 'CONFIRMED') literals in the repository queries
+    public static final Set<String> HOLDING = Set.of(CONFIRMED, ACTIVE);
+
+    private BookingStatus() {
+        // Utility class
+    }
+
+    // Older clients send "Pending" or "active"
+    public static String normalize(String status) {
+        return status == null ? null : status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static boolean isValid(String status) {
+        return status != null && ALL.contains(normalize(status));
+    }
+
+    public static boolean holdsVehicle(String status) {
+        return status != null && HOLDING.contains(normalize(status));
+    }
+}
@@ -0,0 +1,28 @@
+package com.carrental.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One follow-up note on an incident; rows are only ever inserted
+@Entity
+@Data
+@Table(name = "Incident_FollowUp")
+public class IncidentFollowUp {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long incidentId;
+
+    @Column(updatable = false)
+    private String author;
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String notes;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.carrental.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Running totals of a vehicle's maintenance history, maintained by MaintenanceRollups
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "Maintenance_Summary")
+public class MaintenanceSummary {
+
+    @Id
+    @Column(name = "VehicleID")
+    private Long vehicleId;
+
+    @Column(name = "TotalCost", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalCost = BigDecimal.ZERO;
+
+    @Column(name = "PendingCount", nullable = false)
+    private int pendingCount;
+
+    @Column(name = "InProgressCount", nullable = false)
+    private int inProgressCount;
+
+    @Column(name = "CompletedCount", nullable = false)
+    private int completedCount;
+
+    @Column(name = "LastServiceDate")
+    private LocalDate lastServiceDate;
+
+    public MaintenanceSummary(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+}
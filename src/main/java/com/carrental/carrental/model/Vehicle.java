@@ -1,19 +1,28 @@
 package com.carrental.carrental.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(name = "Vehicle")
+@EntityListeners(VehicleListener.class)
+// Read far more often than written; every JPA write updates the cached copy
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Vehicle.CACHE_REGION)
 public class Vehicle {
 
+    public static final String CACHE_REGION = "vehicle";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "VehicleID")
@@ -50,4 +59,25 @@ public class Vehicle {
 
     @Column(name = "status", length = 20)
     private String status;
+
+    // Status as last read from or written to the database, used to adjust the fleet counters.
+    // Bookkeeping only: not part of equality, toString or the all-fields constructor
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String loadedStatus;
+
+    public Vehicle(Long id, String licensePlate, String make, String model, Integer year, String colour,
+                   BigDecimal mileageLimitPerDay, BigDecimal weeklyRate, String status) {
+        this.id = id;
+        this.licensePlate = licensePlate;
+        this.make = make;
+        this.model = model;
+        this.year = year;
+        this.colour = colour;
+        this.mileageLimitPerDay = mileageLimitPerDay;
+        this.weeklyRate = weeklyRate;
+        this.status = status;
+    }
 }
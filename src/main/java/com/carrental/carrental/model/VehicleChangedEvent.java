@@ -0,0 +1,13 @@
+package com.carrental.carrental.model;
+
+/**
+ * Published by {@link VehicleListener} when a vehicle is inserted, updated or deleted, from
+ * inside the flush and so before the transaction commits. {@code previousStatus} is the status
+ * as last read from or written to the database, null for a new vehicle.
+ */
+public record VehicleChangedEvent(Long vehicleId, Change change, String previousStatus, String status) {
+
+    public enum Change {
+        ADDED, UPDATED, REMOVED
+    }
+}
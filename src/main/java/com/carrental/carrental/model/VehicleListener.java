@@ -0,0 +1,49 @@
+package com.carrental.carrental.model;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on {@link Vehicle} that publishes a {@link VehicleChangedEvent} for every write.
+ * Going through the entity lifecycle catches every write path, including the status changes
+ * made by maintenance. Hibernate creates it through Spring, but it only needs the event
+ * publisher, so it never pulls repositories or services into the entity manager's setup;
+ * whoever cares about vehicle changes listens for the event.
+ */
+public class VehicleListener {
+
+    private final ApplicationEventPublisher events;
+
+    public VehicleListener(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @PostLoad
+    public void rememberStatus(Vehicle vehicle) {
+        vehicle.setLoadedStatus(vehicle.getStatus());
+    }
+
+    @PostPersist
+    public void vehicleAdded(Vehicle vehicle) {
+        publish(vehicle, VehicleChangedEvent.Change.ADDED, null);
+    }
+
+    @PostUpdate
+    public void vehicleUpdated(Vehicle vehicle) {
+        publish(vehicle, VehicleChangedEvent.Change.UPDATED, vehicle.getLoadedStatus());
+    }
+
+    @PostRemove
+    public void vehicleRemoved(Vehicle vehicle) {
+        publish(vehicle, VehicleChangedEvent.Change.REMOVED,
+                vehicle.getLoadedStatus() != null ? vehicle.getLoadedStatus() : vehicle.getStatus());
+    }
+
+    private void publish(Vehicle vehicle, VehicleChangedEvent.Change change, String previousStatus) {
+        events.publishEvent(new VehicleChangedEvent(vehicle.getId(), change, previousStatus, vehicle.getStatus()));
+        vehicle.setLoadedStatus(vehicle.getStatus());
+    }
+}
@@ -1,12 +1,14 @@
 package com.carrental.carrental.repository;
 
 import com.carrental.carrental.model.BlockedPeriod;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,10 +23,33 @@ public interface BlockedPeriodRepository extends JpaRepository<BlockedPeriod, Lo
                                               @Param("startDate") LocalDate startDate,
                                               @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT COUNT(bp) > 0 FROM BlockedPeriod bp WHERE bp.vehicleId = :vehicleId AND " +
+            "bp.startDate <= :endDate AND bp.endDate >= :startDate")
+    boolean existsOverlappingBlock(@Param("vehicleId") Long vehicleId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+
     List<BlockedPeriod> findByEndDateAfter(LocalDate date);
 
+    List<BlockedPeriod> findByVehicleIdIn(Collection<Long> vehicleIds);
+
+    // First block, by start date, that ends after the given day, per vehicle (ties broken by id)
+    @Query("SELECT bp FROM BlockedPeriod bp WHERE bp.vehicleId IN :vehicleIds AND bp.endDate > :date " +
+            "AND NOT EXISTS (SELECT 1 FROM BlockedPeriod e WHERE e.vehicleId = bp.vehicleId AND e.endDate > :date " +
+            "AND (e.startDate < bp.startDate OR (e.startDate = bp.startDate AND e.id < bp.id)))")
+    List<BlockedPeriod> findNextBlocks(@Param("vehicleIds") Collection<Long> vehicleIds, @Param("date") LocalDate date);
+
     void deleteByVehicleId(Long vehicleId);
 
     @Query("SELECT bp FROM BlockedPeriod bp WHERE bp.endDate >= CURRENT_DATE ORDER BY bp.startDate")
     List<BlockedPeriod> findActiveBlocks();
+
+    @Query("SELECT COUNT(bp) FROM BlockedPeriod bp WHERE bp.endDate >= CURRENT_DATE")
+    long countActiveBlocks();
+
+    long countByVehicleIdAndEndDateGreaterThanEqual(Long vehicleId, LocalDate date);
+
+    // Keyset chunks for the utilization analytics: {id, vehicleId, startDate, endDate}
+    @Query("SELECT bp.id, bp.vehicleId, bp.startDate, bp.endDate FROM BlockedPeriod bp WHERE bp.id > :afterId ORDER BY bp.id")
+    List<Object[]> findSpansAfter(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -3,22 +3,21 @@ package com.carrental.carrental.repository;
 
 import com.carrental.carrental.model.Booking;
 import com.carrental.carrental.dto.BookingWithEmailDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    // ✅ Rename method: findByVehicleID -> findByVehicle_Id
-    // This tells Spring Data: "Find by the 'id' field of the 'vehicle' object."
-    List<Booking> findByCustomer_Id(Long customerId);
-    List<Booking> findByVehicle_Id(Long vehicleId); // ✅ Fixed name
 
-    @Query(value = "SELECT " +
+    String BOOKING_WITH_EMAIL_SELECT = "SELECT " +
             "b.BookingID as bookingID, " +
             "b.CustomerID as customerID, " +
             "b.VehicleID as vehicleID, " +
@@ -31,25 +30,79 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.TotalCost as totalCost, " +
             "b.BookingStatus as bookingStatus " +
             "FROM Booking b " +
-            "LEFT JOIN Customer_Email ce ON b.CustomerID = ce.CustomerID AND ce.IsPrimary = true",
-            nativeQuery = true)
+            "LEFT JOIN Customer_Email ce ON b.CustomerID = ce.CustomerID AND ce.IsPrimary = true ";
+
+    String BOOKING_FILTERS =
+            "(:status IS NULL OR b.BookingStatus = :status) " +
+            "AND (:vehicleId IS NULL OR b.VehicleID = :vehicleId) " +
+            "AND (:customerId IS NULL OR b.CustomerID = :customerId) " +
+            "AND (:fromDate IS NULL OR b.ReturnDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR b.PickupDate <= :toDate) ";
+
+    // ✅ Rename method: findByVehicleID -> findByVehicle_Id
+    // This tells Spring Data: "Find by the 'id' field of the 'vehicle' object."
+    List<Booking> findByCustomer_Id(Long customerId);
+    List<Booking> findByVehicle_Id(Long vehicleId); // ✅ Fixed name
+    List<Booking> findByVehicle_IdAndBookingStatusIn(Long vehicleId, Collection<String> bookingStatuses);
+    List<Booking> findByVehicle_IdInAndBookingStatusInOrderByPickupDate(Collection<Long> vehicleIds, Collection<String> bookingStatuses);
+
+    // Earliest ACTIVE or CONFIRMED booking per vehicle (ties broken by id); an index seek per vehicle instead of its whole history
+    @Query("SELECT b FROM Booking b WHERE b.vehicle.id IN :vehicleIds AND b.bookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking e WHERE e.vehicle = b.vehicle AND e.bookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+            "AND (e.pickupDate < b.pickupDate OR (e.pickupDate = b.pickupDate AND e.id < b.id)))")
+    List<Booking> findFirstActiveBookings(@Param("vehicleIds") Collection<Long> vehicleIds);
+
+    // ACTIVE and CONFIRMED bookings both hold the vehicle
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.vehicle.id = :vehicleId " +
+            "AND b.bookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+            "AND b.pickupDate < :endDate AND b.returnDate > :startDate " +
+            "AND (:excludeId IS NULL OR b.id <> :excludeId)")
+    boolean existsOverlappingActiveBooking(@Param("vehicleId") Long vehicleId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("excludeId") Long excludeId);
+
+    @Query(value = BOOKING_WITH_EMAIL_SELECT, nativeQuery = true)
     List<BookingWithEmailDTO> findAllBookingsWithEmail();
 
-    @Query(value = "SELECT " +
-            "b.BookingID as bookingID, " +
-            "b.CustomerID as customerID, " +
-            "b.VehicleID as vehicleID, " +
-            "b.CustomerName as customerName, " +
-            "ce.EmailAddress as customerEmail, " +
-            "b.PickupDate as pickupDate, " +
-            "b.ReturnDate as returnDate, " +
-            "b.PickupLocation as pickupLocation, " +
-            "b.ReturnLocation as returnLocation, " +
-            "b.TotalCost as totalCost, " +
-            "b.BookingStatus as bookingStatus " +
-            "FROM Booking b " +
-            "LEFT JOIN Customer_Email ce ON b.CustomerID = ce.CustomerID AND ce.IsPrimary = true " +
-            "WHERE b.BookingID = :bookingId",
-            nativeQuery = true)
+    @Query(value = BOOKING_WITH_EMAIL_SELECT + "WHERE b.BookingID = :bookingId", nativeQuery = true)
     Optional<BookingWithEmailDTO> findBookingWithEmailById(@Param("bookingId") Long bookingId);
+
+    // Keyset pages: seek past the last row seen instead of counting an OFFSET
+    @Query(value = BOOKING_WITH_EMAIL_SELECT +
+            "WHERE " + BOOKING_FILTERS +
+            "AND (:afterId IS NULL OR b.BookingID > :afterId) " +
+            "ORDER BY b.BookingID " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<BookingWithEmailDTO> findBookingsWithEmailAfterId(@Param("status") String status,
+                                                           @Param("vehicleId") Long vehicleId,
+                                                           @Param("customerId") Long customerId,
+                                                           @Param("fromDate") LocalDate fromDate,
+                                                           @Param("toDate") LocalDate toDate,
+                                                           @Param("afterId") Long afterId,
+                                                           @Param("limit") int limit);
+
+    @Query(value = BOOKING_WITH_EMAIL_SELECT +
+            "WHERE " + BOOKING_FILTERS +
+            "AND (:afterPickupDate IS NULL OR b.PickupDate > :afterPickupDate " +
+            "OR (b.PickupDate = :afterPickupDate AND b.BookingID > :afterId)) " +
+            "ORDER BY b.PickupDate, b.BookingID " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<BookingWithEmailDTO> findBookingsWithEmailAfterPickupDate(@Param("status") String status,
+                                                                   @Param("vehicleId") Long vehicleId,
+                                                                   @Param("customerId") Long customerId,
+                                                                   @Param("fromDate") LocalDate fromDate,
+                                                                   @Param("toDate") LocalDate toDate,
+                                                                   @Param("afterPickupDate") LocalDate afterPickupDate,
+                                                                   @Param("afterId") Long afterId,
+                                                                   @Param("limit") int limit);
+
+    // Keyset chunks of the columns the utilization analytics need: {id, vehicleId, pickupDate, returnDate, totalCost}
+    @Query("SELECT b.id, b.vehicle.id, b.pickupDate, b.returnDate, b.totalCost FROM Booking b " +
+            "WHERE b.id > :afterId AND b.bookingStatus IN :statuses ORDER BY b.id")
+    List<Object[]> findSpansAfter(@Param("afterId") Long afterId,
+                                  @Param("statuses") Collection<String> statuses,
+                                  Limit limit);
 }
\ No newline at end of file
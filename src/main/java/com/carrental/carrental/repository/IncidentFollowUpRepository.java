@@ -0,0 +1,24 @@
+package com.carrental.carrental.repository;
+
+import com.carrental.carrental.model.IncidentFollowUp;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IncidentFollowUpRepository extends JpaRepository<IncidentFollowUp, Long> {
+    Page<IncidentFollowUp> findByIncidentId(Long incidentId, Pageable pageable);
+
+    List<IncidentFollowUp> findByIncidentIdIn(Collection<Long> incidentIds);
+
+    List<IncidentFollowUp> findByIncidentIdOrderById(Long incidentId);
+
+    @Modifying
+    @Query("DELETE FROM IncidentFollowUp f WHERE f.incidentId = :incidentId")
+    int deleteByIncidentId(@Param("incidentId") Long incidentId);
+}
@@ -4,6 +4,7 @@ package com.carrental.carrental.repository;
 
 
 import com.carrental.carrental.model.Incident;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -11,4 +12,7 @@ import java.util.List;
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
     List<Incident> findByVehicleId(Long vehicleId);
     List<Incident> findByCustomerId(Long customerId);
+
+    // Keyset chunks for rebuilding the search index
+    List<Incident> findByIdGreaterThanOrderById(Long afterId, Limit limit);
 }
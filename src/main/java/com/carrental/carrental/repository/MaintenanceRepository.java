@@ -2,9 +2,15 @@ package com.carrental.carrental.repository;
 
 import com.carrental.carrental.model.Maintenance;
 import com.carrental.carrental.enums.MaintenanceStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 // MaintenanceRepository.java
@@ -12,4 +18,14 @@ import java.util.List;
 public interface MaintenanceRepository extends JpaRepository<Maintenance, Long> {
     List<Maintenance> findByVehicle_IdOrderByServiceDateDesc(Long vehicleId);
     List<Maintenance> findByVehicle_IdAndStatusOrderByServiceDateDesc(Long vehicleId, MaintenanceStatus status);
+
+    Page<Maintenance> findByVehicle_Id(Long vehicleId, Pageable pageable);
+
+    @Query("SELECT MAX(m.serviceDate) FROM Maintenance m WHERE m.vehicle.id = :vehicleId")
+    LocalDate findLatestServiceDate(@Param("vehicleId") Long vehicleId);
+
+    // Keyset chunks for the utilization analytics: {id, vehicleId, day in the shop}
+    @Query("SELECT m.id, m.vehicle.id, COALESCE(m.serviceDate, m.maintenanceDate) FROM Maintenance m " +
+            "WHERE m.id > :afterId ORDER BY m.id")
+    List<Object[]> findDaysAfter(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
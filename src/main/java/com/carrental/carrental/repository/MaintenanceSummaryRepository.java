@@ -0,0 +1,20 @@
+package com.carrental.carrental.repository;
+
+import com.carrental.carrental.model.MaintenanceSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MaintenanceSummaryRepository extends JpaRepository<MaintenanceSummary, Long> {
+
+    // Serializes concurrent maintenance writes for the same vehicle
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM MaintenanceSummary s WHERE s.vehicleId = :vehicleId")
+    Optional<MaintenanceSummary> findByIdForUpdate(@Param("vehicleId") Long vehicleId);
+}
@@ -1,7 +1,84 @@
 package com.carrental.carrental.repository;
 
 import com.carrental.carrental.model.Vehicle;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
-}
\ No newline at end of file
+
+    String QUERY_CACHE_REGION = "vehicle-queries";
+
+    // Result ids come from the query cache and the rows from the Vehicle entity cache
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Vehicle> findAll();
+
+    // Only the pricing columns, for the quote engine's rate tables: {id, weeklyRate, mileageLimitPerDay}
+    @Query("SELECT v.id, v.weeklyRate, v.mileageLimitPerDay FROM Vehicle v ORDER BY v.id")
+    List<Object[]> findAllRates();
+
+    @Query("SELECT v.id, v.weeklyRate, v.mileageLimitPerDay FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Object[]> findRatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Grouping columns for the utilization analytics: {id, make, model}
+    @Query("SELECT v.id, v.make, v.model FROM Vehicle v ORDER BY v.id")
+    List<Object[]> findAllModels();
+
+    // Keyset chunks for streaming the whole fleet
+    List<Vehicle> findByIdGreaterThanOrderById(Long afterId, Limit limit);
+
+    List<Vehicle> findByLicensePlateIn(Collection<String> licensePlates);
+
+    // SELECT ... FOR UPDATE on one vehicle row; used to serialize reservations per car
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
+
+    // Same lock for a batch of vehicles, taken in id order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Vehicle> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.status, COUNT(v) FROM Vehicle v GROUP BY v.status")
+    List<Object[]> countByStatus();
+
+    // Anti-join against ACTIVE/CONFIRMED bookings and blocked periods, evaluated by the database in one statement
+    @Query(value = "SELECT v FROM Vehicle v WHERE " +
+            "(v.status IS NULL OR UPPER(v.status) <> 'MAINTENANCE') " +
+            "AND (:make IS NULL OR LOWER(v.make) = LOWER(:make)) " +
+            "AND (:model IS NULL OR LOWER(v.model) = LOWER(:model)) " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.vehicle = v AND b.bookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+            "AND b.pickupDate < :endDate AND b.returnDate > :startDate) " +
+            "AND NOT EXISTS (SELECT 1 FROM BlockedPeriod bp WHERE bp.vehicleId = v.id " +
+            "AND bp.startDate <= :endDate AND bp.endDate >= :startDate)",
+            countQuery = "SELECT COUNT(v) FROM Vehicle v WHERE " +
+            "(v.status IS NULL OR UPPER(v.status) <> 'MAINTENANCE') " +
+            "AND (:make IS NULL OR LOWER(v.make) = LOWER(:make)) " +
+            "AND (:model IS NULL OR LOWER(v.model) = LOWER(:model)) " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.vehicle = v AND b.bookingStatus IN ('ACTIVE', 'CONFIRMED') " +
+            "AND b.pickupDate < :endDate AND b.returnDate > :startDate) " +
+            "AND NOT EXISTS (SELECT 1 FROM BlockedPeriod bp WHERE bp.vehicleId = v.id " +
+            "AND bp.startDate <= :endDate AND bp.endDate >= :startDate)")
+    Page<Vehicle> findFreeVehicles(@Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate,
+                                   @Param("make") String make,
+                                   @Param("model") String model,
+                                   Pageable pageable);
+}
@@ -1,8 +1,7 @@
 package com.carrental.carrental.security;
 
-import com.carrental.carrental.service.CustomUserDetailsService;
 import com.carrental.carrental.service.JwtService;
-import com.carrental.carrental.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,13 +17,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserService userService;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserDetailsCache userDetailsCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserService userService, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsCache userDetailsCache) {
         this.jwtService = jwtService;
-        this.userService = userService;
-        this.customUserDetailsService = customUserDetailsService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -33,10 +30,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
-            String username = jwtService.extractUsername(jwt);
+            // Parsed and signature-checked once per token, then served from cache
+            Claims claims = jwtService.verify(jwt);
+            String username = claims != null ? claims.getSubject() : null;
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                UserDetails userDetails = userDetailsCache.get(username);
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
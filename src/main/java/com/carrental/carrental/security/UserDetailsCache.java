@@ -0,0 +1,49 @@
+package com.carrental.carrental.security;
+
+import com.carrental.carrental.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of {@link UserDetails} for the JWT filter, so an authenticated request
+ * does not reload the user on every call. Call {@link #invalidate(String)} whenever a user's
+ * password, roles or enabled flag change; the TTL bounds staleness for anything missed.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserService userService;
+    private final Cache<String, UserDetails> users;
+
+    public UserDetailsCache(UserService userService,
+                            @Value("${jwt.user-cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${jwt.user-cache.max-size:10000}") long maxSize) {
+        this.userService = userService;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String username) {
+        return users.get(username, userService::loadUserByUsername);
+    }
+
+    public void invalidate(String username) {
+        users.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        users.invalidateAll();
+    }
+
+    public Cache<String, UserDetails> getCache() {
+        return users;
+    }
+}
@@ -0,0 +1,263 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.AvailabilityEventDTO;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.VehicleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of vehicle status and next-available changes.
+ * <p>
+ * Changes arrive after commit, from the interval index (bookings and blocks) and from the
+ * Vehicle entity listener (status). They are coalesced per vehicle and turned into events on
+ * one dispatcher thread, which reads the current state, so subscribers always get the latest
+ * values in order. Idle subscribers hold no thread; {@link SseEmitter} parks them as async
+ * requests. The last {@code availability.stream.replay-size} events are kept so a client that
+ * reconnects with {@code Last-Event-ID} gets what it missed; if that is no longer possible
+ * (restart, another node, too far behind) it receives a {@code reset} event and should reload.
+ * <p>
+ * Each subscriber has its own outbox, drained by its own virtual thread, so a slow or stalled
+ * client only delays itself. One that falls further behind than the replay buffer is dropped;
+ * when it reconnects it gets a reset, which is all it could have had anyway.
+ */
+@Component
+public class AvailabilityEventStream {
+
+    static final String EVENT_NAME = "availability";
+    static final String RESET_EVENT_NAME = "reset";
+
+    private final VehicleRepository vehicleRepository;
+    private final VehicleIntervalIndex intervalIndex;
+    private final PrimaryReads primaryReads;
+    private final long timeoutMillis;
+    private final int replaySize;
+
+    // Event ids are "<epoch>-<sequence>"; the epoch tells a resume from another process apart
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "availability-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by recentLock; only touched by the dispatcher thread and subscribe(). Events are
+    // queued to subscribers under it so replay and live events stay in order; nothing is sent under it
+    private final ReentrantLock recentLock = new ReentrantLock();
+    private final Deque<StoredEvent> recent = new ArrayDeque<>();
+    private long sequence;
+
+    public AvailabilityEventStream(VehicleRepository vehicleRepository,
+                                   VehicleIntervalIndex intervalIndex,
+                                   PrimaryReads primaryReads,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${availability.stream.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${availability.stream.replay-size:1000}") int replaySize) {
+        this.vehicleRepository = vehicleRepository;
+        this.intervalIndex = intervalIndex;
+        this.primaryReads = primaryReads;
+        this.timeoutMillis = timeoutMillis;
+        this.replaySize = replaySize;
+        intervalIndex.addChangeListener(this::vehicleChanged);
+        Gauge.builder("carrental.availability.stream.subscribers", subscribers, Map::size)
+                .description("Open availability event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream. With a {@code lastEventId} from this process that is still buffered, the
+     * missed events are replayed first; otherwise a {@code reset} event is sent.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::closed);
+        emitter.onTimeout(subscriber::closed);
+        emitter.onError(e -> subscriber.closed());
+
+        // Replay and registration happen under the buffer lock so no event falls in between
+        recentLock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.put(emitter, subscriber);
+            if (subscriber.closed) {
+                // The replay already failed and unregistered it before it was added
+                subscribers.remove(emitter);
+            }
+        } finally {
+            recentLock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Schedules an event for the vehicle; repeated calls before it is sent collapse into one.
+     */
+    public void vehicleChanged(long vehicleId) {
+        if (pending.add(vehicleId)) {
+            dispatcher.execute(() -> {
+                pending.remove(vehicleId);
+                publish(vehicleId);
+            });
+        }
+    }
+
+    // Keeps proxies and load balancers from closing idle streams, and weeds out dead clients
+    @Scheduled(fixedDelayString = "${availability.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void publish(long vehicleId) {
+        // Runs right after the commit it reports, and goes out to every subscriber
+        Vehicle vehicle = primaryReads.read(() -> vehicleRepository.findById(vehicleId)).orElse(null);
+        AvailabilityEventDTO event = vehicle == null
+                ? new AvailabilityEventDTO(vehicleId, null, null, true)
+                : new AvailabilityEventDTO(vehicleId, vehicle.getStatus(),
+                        intervalIndex.nextAvailable(vehicleId, LocalDate.now()), false);
+        recentLock.lock();
+        try {
+            StoredEvent stored = new StoredEvent(++sequence, event);
+            recent.addLast(stored);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers.values()) {
+                subscriber.offer(toSse(stored));
+            }
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        StoredEvent oldest = recent.peekFirst();
+        long oldestAvailable = oldest != null ? oldest.sequence() : sequence + 1;
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence < oldestAvailable - 1) {
+            subscriber.offer(SseEmitter.event().name(RESET_EVENT_NAME).data(""));
+            return;
+        }
+        Iterator<StoredEvent> events = recent.iterator();
+        while (events.hasNext()) {
+            StoredEvent stored = events.next();
+            if (stored.sequence() > lastSequence) {
+                subscriber.offer(toSse(stored));
+            }
+        }
+    }
+
+    // Sequence number of an id issued by this process, or -1
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(StoredEvent stored) {
+        return SseEmitter.event()
+                .id(epoch + "-" + stored.sequence())
+                .name(EVENT_NAME)
+                .data(stored.event());
+    }
+
+    /**
+     * One stream's outbox. Offers never block: they queue the event and start a drain on a
+     * virtual thread if none is running. The outbox holds as many events as the replay buffer,
+     * so a full replay always fits.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox = new ArrayBlockingQueue<>(Math.max(1, replaySize) + 1);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!outbox.offer(event)) {
+                // Completing may wait for a send stuck on this client, so do it off the caller's thread
+                closed();
+                senders.execute(() -> emitter.completeWithError(new IOException("Subscriber fell behind")));
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = outbox.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the emitter callbacks may not fire for a broken pipe
+                        closed();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An offer may have queued an event after the last poll but seen the drain still running
+            } while (!closed && !outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void closed() {
+            closed = true;
+            subscribers.remove(emitter);
+            outbox.clear();
+        }
+    }
+
+    private record StoredEvent(long sequence, AvailabilityEventDTO event) {
+    }
+}
@@ -3,11 +3,13 @@ package com.carrental.carrental.service;
 import com.carrental.carrental.dto.*;
 import com.carrental.carrental.model.BlockedPeriod;
 import com.carrental.carrental.model.Vehicle;
-import com.carrental.carrental.model.Booking;
-import com.carrental.carrental.enums.VehicleStatus;
+import com.carrental.carrental.model.VehicleStatus;
 import com.carrental.carrental.repository.BlockedPeriodRepository;
-import com.carrental.carrental.repository.VehicleRepository;
 import com.carrental.carrental.repository.BookingRepository;
+import com.carrental.carrental.repository.VehicleRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,72 +22,40 @@ import java.util.stream.Collectors;
 public class AvailabilityService {
 
     private final VehicleRepository vehicleRepository;
-    private final BlockedPeriodRepository blockedPeriodRepository;
     private final BookingRepository bookingRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final VehicleIntervalIndex intervalIndex;
+    private final FleetCounters fleetCounters;
+    private final AvailabilitySnapshot availabilitySnapshot;
 
     public AvailabilityService(VehicleRepository vehicleRepository,
+                               BookingRepository bookingRepository,
                                BlockedPeriodRepository blockedPeriodRepository,
-                               BookingRepository bookingRepository) {
+                               VehicleIntervalIndex intervalIndex,
+                               FleetCounters fleetCounters,
+                               AvailabilitySnapshot availabilitySnapshot) {
         this.vehicleRepository = vehicleRepository;
-        this.blockedPeriodRepository = blockedPeriodRepository;
         this.bookingRepository = bookingRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.intervalIndex = intervalIndex;
+        this.fleetCounters = fleetCounters;
+        this.availabilitySnapshot = availabilitySnapshot;
     }
 
     public AvailabilityStatsDTO getAvailabilityStats() {
-        List<Vehicle> allVehicles = vehicleRepository.findAll();
-
-        long total = allVehicles.size();
-        long available = allVehicles.stream().filter(v -> VehicleStatus.AVAILABLE.equals(v.getStatus())).count();
-        long booked = allVehicles.stream().filter(v -> VehicleStatus.RENTED.equals(v.getStatus())).count();
-        long maintenance = allVehicles.stream().filter(v -> VehicleStatus.MAINTENANCE.equals(v.getStatus())).count();
-        long blocked = blockedPeriodRepository.findActiveBlocks().size();
-
-        return new AvailabilityStatsDTO(total, available, booked, maintenance, blocked);
+        return fleetCounters.getStats();
     }
 
     public List<VehicleAvailabilityDTO> getAllVehiclesWithAvailability() {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-
-        return vehicles.stream().map(vehicle -> {
-            VehicleAvailabilityDTO dto = new VehicleAvailabilityDTO();
-            dto.setId(vehicle.getId());
-            dto.setMake(vehicle.getMake());
-            dto.setModel(vehicle.getModel());
-            dto.setYear(vehicle.getYear());
-            dto.setLicensePlate(vehicle.getLicensePlate());
-            dto.setStatus(vehicle.getStatus());
-
-            // Get current active booking
-            List<Booking> activeBookings = bookingRepository.findByVehicle_Id(vehicle.getId())
-                    .stream()
-                    .filter(booking -> "ACTIVE".equals(booking.getBookingStatus()))
-                    .collect(Collectors.toList());
-
-            if (!activeBookings.isEmpty()) {
-                Booking currentBooking = activeBookings.get(0);
-                CurrentBookingDTO bookingDTO = new CurrentBookingDTO();
-                bookingDTO.setCustomer(currentBooking.getCustomerName());
-                bookingDTO.setStartDate(currentBooking.getPickupDate());
-                bookingDTO.setEndDate(currentBooking.getReturnDate());
-                dto.setCurrentBooking(bookingDTO);
-                dto.setNextAvailable(currentBooking.getReturnDate().plusDays(1));
-            } else {
-                // Check for blocked periods
-                List<BlockedPeriod> activeBlocks = blockedPeriodRepository.findByVehicleId(vehicle.getId())
-                        .stream()
-                        .filter(block -> block.getEndDate().isAfter(LocalDate.now()))
-                        .collect(Collectors.toList());
-
-                if (!activeBlocks.isEmpty()) {
-                    BlockedPeriod nextBlock = activeBlocks.get(0);
-                    dto.setNextAvailable(nextBlock.getEndDate().plusDays(1));
-                } else {
-                    dto.setNextAvailable(LocalDate.now());
-                }
-            }
+        return getVehiclesWithAvailability(null, Pageable.unpaged(Sort.by("id"))).getContent();
+    }
 
-            return dto;
-        }).collect(Collectors.toList());
+    /**
+     * Pages through the fleet, optionally restricted to one status. Served from the precomputed
+     * {@link AvailabilitySnapshot}, so no query runs and booking history does not affect latency.
+     */
+    public Page<VehicleAvailabilityDTO> getVehiclesWithAvailability(String status, Pageable pageable) {
+        return availabilitySnapshot.getVehicles(status, pageable);
     }
 
     public List<BlockedPeriodDTO> getAllBlockedPeriods() {
@@ -111,23 +81,20 @@ public class AvailabilityService {
     }
 
     public BlockedPeriod blockVehicle(BlockVehicleRequest request) {
-        // Check for overlapping blocks
-        List<BlockedPeriod> overlappingBlocks = blockedPeriodRepository.findOverlappingBlocks(
-                request.getVehicleId(), request.getStartDate(), request.getEndDate());
+        // Same vehicle row lock as BookingService.createBooking, taken first, so a concurrent
+        // reservation for the same dates waits and the SQL checks below see it once committed
+        vehicleRepository.findByIdForUpdate(request.getVehicleId())
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
 
-        if (!overlappingBlocks.isEmpty()) {
+        // Check for overlapping blocks
+        if (blockedPeriodRepository.existsOverlappingBlock(request.getVehicleId(),
+                request.getStartDate(), request.getEndDate())) {
             throw new IllegalArgumentException("Vehicle is already blocked for the selected period");
         }
 
         // Check for existing bookings in the period
-        List<Booking> overlappingBookings = bookingRepository.findByVehicle_Id(request.getVehicleId())
-                .stream()
-                .filter(booking -> isDateRangeOverlapping(
-                        booking.getPickupDate(), booking.getReturnDate(),
-                        request.getStartDate(), request.getEndDate()))
-                .collect(Collectors.toList());
-
-        if (!overlappingBookings.isEmpty()) {
+        if (bookingRepository.existsOverlappingActiveBooking(request.getVehicleId(),
+                request.getStartDate(), request.getEndDate(), null)) {
             throw new IllegalArgumentException("Vehicle has bookings during the selected period");
         }
 
@@ -137,46 +104,61 @@ public class AvailabilityService {
         blockedPeriod.setEndDate(request.getEndDate());
         blockedPeriod.setReason(request.getReason());
 
-        return blockedPeriodRepository.save(blockedPeriod);
+        BlockedPeriod saved = blockedPeriodRepository.save(blockedPeriod);
+        intervalIndex.blockSaved(saved);
+        if (isActiveBlock(saved)) {
+            fleetCounters.activeBlocksChanged(1);
+        }
+        return saved;
     }
 
     public void unblockVehicle(Long vehicleId) {
+        long activeBlocks = blockedPeriodRepository.countByVehicleIdAndEndDateGreaterThanEqual(vehicleId, LocalDate.now());
         blockedPeriodRepository.deleteByVehicleId(vehicleId);
+        intervalIndex.blocksCleared(vehicleId);
+        fleetCounters.activeBlocksChanged(-activeBlocks);
     }
 
     public void unblockPeriod(Long blockId) {
+        blockedPeriodRepository.findById(blockId).ifPresent(block -> {
+            intervalIndex.blockRemoved(block.getVehicleId(), block.getId());
+            if (isActiveBlock(block)) {
+                fleetCounters.activeBlocksChanged(-1);
+            }
+        });
         blockedPeriodRepository.deleteById(blockId);
     }
 
+    @Transactional(readOnly = true)
+    public Page<VehicleDTO> findFreeVehicles(LocalDate startDate, LocalDate endDate,
+                                             String make, String model, Pageable pageable) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        return vehicleRepository.findFreeVehicles(startDate, endDate, blankToNull(make), blankToNull(model), pageable)
+                .map(VehicleDTO::new);
+    }
+
     public boolean isVehicleAvailable(Long vehicleId, LocalDate startDate, LocalDate endDate) {
         // Check if vehicle exists and is not under maintenance
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
 
-        if (VehicleStatus.MAINTENANCE.equals(vehicle.getStatus())) {
+        if (VehicleStatus.MAINTENANCE.equalsIgnoreCase(vehicle.getStatus())) {
             return false;
         }
 
-        // Check for overlapping blocks
-        List<BlockedPeriod> overlappingBlocks = blockedPeriodRepository.findOverlappingBlocks(
-                vehicleId, startDate, endDate);
-
-        if (!overlappingBlocks.isEmpty()) {
-            return false;
-        }
-
-        // Check for overlapping bookings
-        List<Booking> overlappingBookings = bookingRepository.findByVehicle_Id(vehicleId)
-                .stream()
-                .filter(booking -> "ACTIVE".equals(booking.getBookingStatus()))
-                .filter(booking -> isDateRangeOverlapping(
-                        booking.getPickupDate(), booking.getReturnDate(), startDate, endDate))
-                .collect(Collectors.toList());
+        // Check for overlapping blocks and bookings that hold the vehicle
+        return !intervalIndex.hasBlockOverlap(vehicleId, startDate, endDate)
+                && !intervalIndex.hasBookingOverlap(vehicleId, startDate, endDate);
+    }
 
-        return overlappingBookings.isEmpty();
+    // Same rule as BlockedPeriodRepository.findActiveBlocks
+    private boolean isActiveBlock(BlockedPeriod block) {
+        return !block.getEndDate().isBefore(LocalDate.now());
     }
 
-    private boolean isDateRangeOverlapping(LocalDate start1, LocalDate end1, LocalDate start2, LocalDate end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.CurrentBookingDTO;
+import com.carrental.carrental.dto.VehicleAvailabilityDTO;
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.BookingRepository;
+import com.carrental.carrental.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed availability dashboard rows: vehicle details, current booking and next-available
+ * date for every vehicle.
+ * <p>
+ * Reads serve an immutable snapshot and never query the database, so their cost depends on the
+ * fleet size only, not on booking history. A background job rebuilds just the vehicles marked
+ * dirty since the last run and swaps the new snapshot in atomically. Vehicles are marked by the
+ * interval index (bookings and blocks) and the Vehicle entity listener (status and details, which
+ * also covers maintenance moving a vehicle in and out of service). The whole fleet is rebuilt at
+ * midnight, after a bulk change that bypassed the listeners, and every
+ * {@code availability.snapshot.rebuild-ms}. Reads may therefore lag a write committed through
+ * this node by up to {@code availability.snapshot.refresh-ms}, and one that no listener here saw
+ * (another node, plain SQL) by up to {@code availability.snapshot.rebuild-ms}.
+ */
+@Component
+public class AvailabilitySnapshot {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final Map<String, Comparator<Entry>> ORDERINGS = Map.of(
+            "id", Comparator.comparing(Entry::id),
+            "make", Comparator.comparing(Entry::make, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "model", Comparator.comparing(Entry::model, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "year", Comparator.comparing(Entry::year, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "licensePlate", Comparator.comparing(Entry::licensePlate, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "status", Comparator.comparing(Entry::status, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+
+    private final VehicleRepository vehicleRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final PrimaryReads primaryReads;
+    private final long rebuildMillis;
+
+    // ETags are "<epoch>-<version>"; the epoch keeps versions from another process apart
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile boolean rebuildAll = true;
+    private volatile Snapshot current;
+
+    public AvailabilitySnapshot(VehicleRepository vehicleRepository,
+                                BookingRepository bookingRepository,
+                                BlockedPeriodRepository blockedPeriodRepository,
+                                VehicleIntervalIndex intervalIndex,
+                                PrimaryReads primaryReads,
+                                @Value("${availability.snapshot.rebuild-ms:300000}") long rebuildMillis) {
+        this.vehicleRepository = vehicleRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.primaryReads = primaryReads;
+        this.rebuildMillis = rebuildMillis;
+        intervalIndex.addChangeListener(this::vehicleChanged);
+    }
+
+    /**
+     * Marks a vehicle for the next refresh. Call after commit.
+     */
+    public void vehicleChanged(long vehicleId) {
+        dirty.add(vehicleId);
+    }
+
+    /**
+     * Schedules a rebuild of the whole fleet, for writes that do not name their vehicles.
+     */
+    public void invalidateAll() {
+        rebuildAll = true;
+    }
+
+    /**
+     * The properties {@link #getVehicles} can sort by.
+     */
+    public static Set<String> sortableProperties() {
+        return ORDERINGS.keySet();
+    }
+
+    /**
+     * One page of the snapshot, optionally restricted to a status (ignoring case). Sorting is
+     * limited to the vehicle columns the dashboard offers.
+     */
+    public Page<VehicleAvailabilityDTO> getVehicles(String status, Pageable pageable) {
+        Snapshot snapshot = snapshot();
+        List<Entry> entries = status == null
+                ? snapshot.entries()
+                : snapshot.entries().stream()
+                        .filter(entry -> status.equalsIgnoreCase(entry.status()))
+                        .collect(Collectors.toList());
+        Comparator<Entry> order = comparator(pageable.getSort());
+        if (order != null) {
+            entries = new ArrayList<>(entries);
+            entries.sort(order);
+        }
+        List<Entry> content = entries;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), entries.size());
+            int to = Math.min(from + pageable.getPageSize(), entries.size());
+            content = entries.subList(from, to);
+        }
+        return new PageImpl<>(content.stream().map(Entry::toDto).collect(Collectors.toList()),
+                pageable, entries.size());
+    }
+
+    /**
+     * Changes whenever a new snapshot is swapped in, so it can back an HTTP ETag. Unlike the table
+     * versions it never runs ahead of the data that is served.
+     */
+    public String etag() {
+        return "\"" + epoch + "-" + snapshot().version() + "\"";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${availability.snapshot.refresh-ms:500}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            Snapshot snapshot = current;
+            if (snapshot == null || rebuildAll || !snapshot.day().equals(today)
+                    || System.currentTimeMillis() - snapshot.builtAt() >= rebuildMillis) {
+                // Marks made while rebuilding stay set, so their vehicles are reloaded next time
+                rebuildAll = false;
+                dirty.clear();
+                current = rebuild(today, snapshot == null ? 1 : snapshot.version() + 1);
+            } else if (!dirty.isEmpty()) {
+                Set<Long> changed = new HashSet<>(dirty);
+                dirty.removeAll(changed);
+                current = update(snapshot, changed);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Requests that arrive before the first build wait for it instead of seeing an empty fleet
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            refresh();
+            snapshot = current;
+        }
+        return snapshot;
+    }
+
+    private Snapshot rebuild(LocalDate today, long version) {
+        long startedAt = System.currentTimeMillis();
+        TreeMap<Long, Entry> entries = new TreeMap<>();
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Vehicle> vehicles = primaryReads.read(
+                    () -> vehicleRepository.findByIdGreaterThanOrderById(cursor, Limit.of(REBUILD_CHUNK_SIZE)));
+            if (vehicles.isEmpty()) {
+                break;
+            }
+            load(vehicles, today).forEach(entry -> entries.put(entry.id(), entry));
+            afterId = vehicles.get(vehicles.size() - 1).getId();
+        }
+        return new Snapshot(today, version, List.copyOf(entries.values()), startedAt);
+    }
+
+    private Snapshot update(Snapshot snapshot, Set<Long> changed) {
+        List<Vehicle> vehicles = primaryReads.read(() -> vehicleRepository.findAllById(changed));
+        TreeMap<Long, Entry> entries = snapshot.entries().stream()
+                .collect(Collectors.toMap(Entry::id, Function.identity(), (a, b) -> a, TreeMap::new));
+        // Deleted vehicles are simply not found again
+        entries.keySet().removeAll(changed);
+        load(vehicles, snapshot.day()).forEach(entry -> entries.put(entry.id(), entry));
+        return new Snapshot(snapshot.day(), snapshot.version() + 1, List.copyOf(entries.values()), snapshot.builtAt());
+    }
+
+    // The first ACTIVE or CONFIRMED booking decides, then the first block not yet over; both are picked in SQL.
+    // Refreshes follow commits, so everything here reads the primary
+    private List<Entry> load(Collection<Vehicle> vehicles, LocalDate today) {
+        List<Long> vehicleIds = vehicles.stream().map(Vehicle::getId).collect(Collectors.toList());
+        return primaryReads.read(() -> {
+            Map<Long, Booking> currentBookings = new HashMap<>();
+            for (Booking booking : bookingRepository.findFirstActiveBookings(vehicleIds)) {
+                currentBookings.put(booking.getVehicle().getId(), booking);
+            }
+            Map<Long, BlockedPeriod> nextBlocks = new HashMap<>();
+            for (BlockedPeriod block : blockedPeriodRepository.findNextBlocks(vehicleIds, today)) {
+                nextBlocks.put(block.getVehicleId(), block);
+            }
+            List<Entry> entries = new ArrayList<>(vehicles.size());
+            for (Vehicle vehicle : vehicles) {
+                Booking booking = currentBookings.get(vehicle.getId());
+                BlockedPeriod block = nextBlocks.get(vehicle.getId());
+                LocalDate nextAvailable = booking != null ? booking.getReturnDate().plusDays(1)
+                        : block != null ? block.getEndDate().plusDays(1)
+                        : today;
+                entries.add(new Entry(vehicle.getId(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear(),
+                        vehicle.getLicensePlate(), vehicle.getStatus(),
+                        booking != null ? booking.getCustomerName() : null,
+                        booking != null ? booking.getPickupDate() : null,
+                        booking != null ? booking.getReturnDate() : null,
+                        nextAvailable));
+            }
+            return entries;
+        });
+    }
+
+    private static Comparator<Entry> comparator(Sort sort) {
+        Comparator<Entry> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Entry> next = ORDERINGS.get(order.getProperty());
+            if (next == null) {
+                throw new IllegalArgumentException("Cannot sort vehicles by: " + order.getProperty());
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        // Entries are already in id order
+        if (result != null && sort.equals(Sort.by("id"))) {
+            return null;
+        }
+        return result;
+    }
+
+    // builtAt is when the last full rebuild started reading; incremental updates keep it
+    private record Snapshot(LocalDate day, long version, List<Entry> entries, long builtAt) {
+    }
+
+    private record Entry(Long id, String make, String model, Integer year, String licensePlate, String status,
+                         String customer, LocalDate bookingStart, LocalDate bookingEnd, LocalDate nextAvailable) {
+
+        VehicleAvailabilityDTO toDto() {
+            VehicleAvailabilityDTO dto = new VehicleAvailabilityDTO();
+            dto.setId(id);
+            dto.setMake(make);
+            dto.setModel(model);
+            dto.setYear(year);
+            dto.setLicensePlate(licensePlate);
+            dto.setStatus(status);
+            if (bookingStart != null) {
+                CurrentBookingDTO booking = new CurrentBookingDTO();
+                booking.setCustomer(customer);
+                booking.setStartDate(bookingStart);
+                booking.setEndDate(bookingEnd);
+                dto.setCurrentBooking(booking);
+            }
+            dto.setNextAvailable(nextAvailable);
+            return dto;
+        }
+    }
+}
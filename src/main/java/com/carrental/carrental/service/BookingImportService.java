@@ -0,0 +1,334 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.BookingImportRow;
+import com.carrental.carrental.dto.ImportResultDTO;
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.model.Customer;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.BookingRepository;
+import com.carrental.carrental.repository.CustomerRepository;
+import com.carrental.carrental.repository.VehicleRepository;
+import com.carrental.carrental.service.VehicleIntervalIndex.IntervalSet;
+import com.carrental.carrental.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Bulk booking import for partner channel drops. Input is read as a stream and handled in
+ * chunks; each chunk runs in its own transaction that locks the chunk's vehicles, checks
+ * references and overlaps with one query per table, and inserts the accepted rows as JDBC
+ * batches. A failing row never stops the import; it is reported back with its row number.
+ */
+@Service
+public class BookingImportService {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private final BookingRepository bookingRepository;
+    private final VehicleRepository vehicleRepository;
+    private final CustomerRepository customerRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final VehicleIntervalIndex intervalIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BookingImportService(BookingRepository bookingRepository,
+                                VehicleRepository vehicleRepository,
+                                CustomerRepository customerRepository,
+                                BlockedPeriodRepository blockedPeriodRepository,
+                                VehicleIntervalIndex intervalIndex,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${booking.import.chunk-size:1000}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.customerRepository = customerRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.intervalIndex = intervalIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a JSON array of {@link BookingImportRow} objects.
+     */
+    public ImportResultDTO importJson(InputStream in) throws IOException {
+        ImportResultDTO result = new ImportResultDTO();
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(BAD_REQUEST, "Expected a JSON array of bookings");
+            }
+            long row = 0;
+            while (true) {
+                JsonNode node;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY || token == null) {
+                        break;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new ResponseStatusException(BAD_REQUEST, "Expected a JSON array of bookings");
+                    }
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON cannot be resynchronised, so everything after this point is lost
+                    result.setReceived(result.getReceived() + 1);
+                    result.addError(row + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+                row++;
+                try {
+                    add(chunk, new NumberedRow(row, objectMapper.treeToValue(node, BookingImportRow.class)), result);
+                } catch (JsonProcessingException e) {
+                    result.setReceived(result.getReceived() + 1);
+                    result.addError(row, "Invalid value: " + e.getOriginalMessage());
+                }
+            }
+        }
+        importChunk(chunk, result);
+        return result;
+    }
+
+    /**
+     * Imports CSV with a header row naming the {@link BookingImportRow} properties, in any order
+     * and case; vehicleId, customerId, pickupDate and returnDate are required. Dates are ISO-8601.
+     */
+    public ImportResultDTO importCsv(InputStream in) throws IOException {
+        ImportResultDTO result = new ImportResultDTO();
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            return result;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("vehicleid", "customerid", "pickupdate", "returndate")) {
+            if (!columns.containsKey(required)) {
+                throw new ResponseStatusException(BAD_REQUEST, "CSV header is missing column " + required);
+            }
+        }
+
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            row++;
+            try {
+                add(chunk, new NumberedRow(row, fromCsv(columns, record)), result);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                result.setReceived(result.getReceived() + 1);
+                result.addError(row, "Invalid value: " + e.getMessage());
+            }
+        }
+        importChunk(chunk, result);
+        return result;
+    }
+
+    private BookingImportRow fromCsv(Map<String, Integer> columns, List<String> record) {
+        BookingImportRow row = new BookingImportRow();
+        row.setVehicleId(parse(columns, record, "vehicleid", Long::valueOf));
+        row.setCustomerId(parse(columns, record, "customerid", Long::valueOf));
+        row.setCustomerName(parse(columns, record, "customername", Function.identity()));
+        row.setPickupDate(parse(columns, record, "pickupdate", LocalDate::parse));
+        row.setReturnDate(parse(columns, record, "returndate", LocalDate::parse));
+        row.setPickupLocation(parse(columns, record, "pickuplocation", Function.identity()));
+        row.setReturnLocation(parse(columns, record, "returnlocation", Function.identity()));
+        row.setTotalCost(parse(columns, record, "totalcost", BigDecimal::new));
+        row.setBookingStatus(parse(columns, record, "bookingstatus", Function.identity()));
+        return row;
+    }
+
+    private static <T> T parse(Map<String, Integer> columns, List<String> record, String column,
+                               Function<String, T> parser) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isBlank()) {
+            return null;
+        }
+        return parser.apply(record.get(index).trim());
+    }
+
+    private void add(List<NumberedRow> chunk, NumberedRow row, ImportResultDTO result) {
+        result.setReceived(result.getReceived() + 1);
+        String error = validate(row.value());
+        if (error != null) {
+            result.addError(row.number(), error);
+            return;
+        }
+        chunk.add(row);
+        if (chunk.size() >= chunkSize) {
+            importChunk(chunk, result);
+        }
+    }
+
+    // Same rules as the single-booking endpoint and the entity's bean validation
+    private String validate(BookingImportRow row) {
+        if (row.getVehicleId() == null) {
+            return "Vehicle ID is required";
+        }
+        if (row.getCustomerId() == null) {
+            return "Customer ID is required";
+        }
+        if (row.getPickupDate() == null) {
+            return "Pickup date is required";
+        }
+        if (row.getReturnDate() == null) {
+            return "Return date is required";
+        }
+        if (row.getReturnDate().isBefore(row.getPickupDate())) {
+            return "Return date must not be before pickup date";
+        }
+        if (row.getTotalCost() != null && row.getTotalCost().signum() <= 0) {
+            return "Total cost must be positive";
+        }
+        if (row.getBookingStatus() == null || row.getBookingStatus().isBlank()) {
+            row.setBookingStatus(ACTIVE);
+        }
+        if (!BookingStatus.isValid(row.getBookingStatus())) {
+            return "Booking status must be one of " + BookingStatus.ALL;
+        }
+        row.setBookingStatus(BookingStatus.normalize(row.getBookingStatus()));
+        return null;
+    }
+
+    private void importChunk(List<NumberedRow> chunk, ImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ChunkOutcome outcome = new ChunkOutcome();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(chunk, outcome));
+            result.setImported(result.getImported() + outcome.accepted.size());
+        } catch (RuntimeException e) {
+            for (NumberedRow row : outcome.accepted) {
+                outcome.rejected.add(new NumberedError(row.number(),
+                        "Not imported, chunk rolled back: " + e.getMessage()));
+            }
+        }
+        outcome.rejected.sort((a, b) -> Long.compare(a.row(), b.row()));
+        for (NumberedError error : outcome.rejected) {
+            result.addError(error.row(), error.message());
+        }
+        chunk.clear();
+    }
+
+    private void insertChunk(List<NumberedRow> chunk, ChunkOutcome outcome) {
+        // Locking first, in id order, serializes with single reservations of the same cars
+        Set<Long> vehicleIds = chunk.stream()
+                .map(row -> row.value().getVehicleId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Vehicle> vehicles = vehicleRepository.findAllByIdForUpdate(vehicleIds).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+        Set<Long> customerIds = chunk.stream()
+                .map(row -> row.value().getCustomerId())
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        Map<Long, IntervalSet> bookedIntervals = new HashMap<>();
+        Map<Long, IntervalSet> blockedIntervals = new HashMap<>();
+        if (!vehicles.isEmpty()) {
+            for (Booking booking : bookingRepository.findByVehicle_IdInAndBookingStatusInOrderByPickupDate(vehicles.keySet(), BookingStatus.HOLDING)) {
+                bookedIntervals.compute(booking.getVehicle().getId(), (id, set) -> (set == null ? IntervalSet.EMPTY : set)
+                        .with(booking.getId(), booking.getPickupDate().toEpochDay(), booking.getReturnDate().toEpochDay()));
+            }
+            for (BlockedPeriod block : blockedPeriodRepository.findByVehicleIdIn(vehicles.keySet())) {
+                blockedIntervals.compute(block.getVehicleId(), (id, set) -> (set == null ? IntervalSet.EMPTY : set)
+                        .with(block.getId(), block.getStartDate().toEpochDay(), block.getEndDate().toEpochDay()));
+            }
+        }
+
+        List<Booking> bookings = new ArrayList<>(chunk.size());
+        for (NumberedRow row : chunk) {
+            BookingImportRow value = row.value();
+            Vehicle vehicle = vehicles.get(value.getVehicleId());
+            if (vehicle == null) {
+                outcome.rejected.add(new NumberedError(row.number(), "Vehicle not found: " + value.getVehicleId()));
+                continue;
+            }
+            Customer customer = customers.get(value.getCustomerId());
+            if (customer == null) {
+                outcome.rejected.add(new NumberedError(row.number(), "Customer not found: " + value.getCustomerId()));
+                continue;
+            }
+            if (BookingStatus.holdsVehicle(value.getBookingStatus())) {
+                long start = value.getPickupDate().toEpochDay();
+                long end = value.getReturnDate().toEpochDay();
+                IntervalSet booked = bookedIntervals.getOrDefault(vehicle.getId(), IntervalSet.EMPTY);
+                if (booked.overlapsExclusive(start, end)) {
+                    outcome.rejected.add(new NumberedError(row.number(), "Vehicle is already booked for the selected period"));
+                    continue;
+                }
+                if (blockedIntervals.getOrDefault(vehicle.getId(), IntervalSet.EMPTY).overlapsInclusive(start, end)) {
+                    outcome.rejected.add(new NumberedError(row.number(), "Vehicle is blocked for the selected period"));
+                    continue;
+                }
+                // Later rows of the same import must not overlap this one either
+                bookedIntervals.put(vehicle.getId(), booked.with(null, start, end));
+            }
+
+            Booking booking = new Booking();
+            booking.setVehicle(vehicle);
+            booking.setCustomer(customer);
+            booking.setCustomerName(value.getCustomerName());
+            booking.setPickupDate(value.getPickupDate());
+            booking.setReturnDate(value.getReturnDate());
+            booking.setPickupLocation(value.getPickupLocation());
+            booking.setReturnLocation(value.getReturnLocation());
+            booking.setTotalCost(value.getTotalCost());
+            booking.setBookingStatus(value.getBookingStatus());
+            bookings.add(booking);
+            outcome.accepted.add(row);
+        }
+
+        // Pooled ids plus hibernate.jdbc.batch_size turn this into a handful of batched INSERTs
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+        bookings.forEach(intervalIndex::bookingSaved);
+    }
+
+    private record NumberedRow(long number, BookingImportRow value) {
+    }
+
+    private record NumberedError(long row, String message) {
+    }
+
+    private static final class ChunkOutcome {
+        private final List<NumberedRow> accepted = new ArrayList<>();
+        private final List<NumberedError> rejected = new ArrayList<>();
+    }
+}
@@ -0,0 +1,55 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.model.Booking;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Entry point for new reservations. Requests for the same vehicle queue on a striped
+ * in-JVM lock, so at most one of them per node waits on the vehicle's database row lock
+ * and the connection pool is not tied up by a hot car. The lock is held until
+ * {@link BookingService#createBooking} has committed.
+ * <p>
+ * Deliberately not transactional: the transaction has to start and end inside the lock.
+ */
+@Service
+public class BookingReservationService {
+
+    private final BookingService bookingService;
+    private final ReentrantLock[] stripes;
+
+    public BookingReservationService(BookingService bookingService,
+                                     @Value("${booking.lock-stripes:256}") int stripeCount) {
+        this.bookingService = bookingService;
+        // Round up to a power of two so a mask can pick the stripe
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Booking reserve(Booking booking) {
+        if (booking.getVehicle() == null || booking.getVehicle().getId() == null) {
+            throw new ResponseStatusException(BAD_REQUEST, "Vehicle ID is required");
+        }
+        ReentrantLock lock = stripeFor(booking.getVehicle().getId());
+        lock.lock();
+        try {
+            return bookingService.createBooking(booking);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long vehicleId) {
+        int hash = Long.hashCode(vehicleId);
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
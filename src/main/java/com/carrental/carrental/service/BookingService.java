@@ -1,14 +1,22 @@
 // BookingService.java
 package com.carrental.carrental.service;
 
+import com.carrental.carrental.dto.BookingPageDTO;
+import com.carrental.carrental.dto.BookingSearchRequest;
 import com.carrental.carrental.dto.BookingWithEmailDTO;
 import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
 import com.carrental.carrental.repository.BookingRepository;
 import com.carrental.carrental.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.*;
@@ -16,43 +24,85 @@ import static org.springframework.http.HttpStatus.*;
 @Service
 @Transactional
 public class BookingService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final VehicleRepository vehicleRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final VehicleIntervalIndex intervalIndex;
+    private final ObjectMapper objectMapper;
+    private final QuoteEngine quoteEngine;
 
     public BookingService(BookingRepository bookingRepository,
-                          VehicleRepository vehicleRepository) {
+                          VehicleRepository vehicleRepository,
+                          BlockedPeriodRepository blockedPeriodRepository,
+                          VehicleIntervalIndex intervalIndex,
+                          ObjectMapper objectMapper,
+                          QuoteEngine quoteEngine) {
         this.bookingRepository = bookingRepository;
         this.vehicleRepository = vehicleRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.intervalIndex = intervalIndex;
+        this.objectMapper = objectMapper;
+        this.quoteEngine = quoteEngine;
     }
 
+    /**
+     * Saves a new booking. An ACTIVE or CONFIRMED booking is only accepted if it overlaps no other
+     * such booking and no blocked period of the same vehicle; the check runs under a row lock on the
+     * vehicle, so concurrent reservations for one car are serialized across every node while
+     * different cars proceed in parallel.
+     */
     public Booking createBooking(Booking booking) {
         // Validate vehicle availability
-        if (booking.getVehicle() == null) {
+        if (booking.getVehicle() == null || booking.getVehicle().getId() == null) {
             throw new ResponseStatusException(BAD_REQUEST, "Vehicle ID is required");
         }
-        // Fetch Vehicle by ID from the booking object
-        // If you need to check availability, you might need to add a method to VehicleRepository
-        // For now, assume it's valid or add validation later.
-        // Vehicle vehicle = vehicleRepository.findById(booking.getVehicleID())
-        //         .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Vehicle not found"));
+
+        // Ids are generated; anything the client sent (the UI sends 0) is ignored
+        booking.setId(null);
 
         // Set default status if not provided
         if (booking.getBookingStatus() == null) {
-            booking.setBookingStatus("ACTIVE");
+            booking.setBookingStatus(BookingStatus.ACTIVE);
         }
+        requireKnownStatus(booking);
+
+        // Price on the server when the client leaves it out. Done before taking the lock so a rate
+        // refresh is never waited on while the vehicle is held; it runs in its own transaction
+        if (booking.getTotalCost() == null) {
+            quoteEngine.findPrice(booking.getVehicle().getId(), booking.getPickupDate(), booking.getReturnDate())
+                    .ifPresent(booking::setTotalCost);
+        }
+
+        // Must be the first statement of the transaction so the overlap reads below see every committed booking
+        lockVehicle(booking.getVehicle().getId());
+        checkNoConflicts(booking, null);
 
         // Update vehicle status (if needed, you'll need to implement this logic)
         // vehicle.setStatus(VehicleStatus.RENTED);
         // vehicleRepository.save(vehicle);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        intervalIndex.bookingSaved(saved);
+        return saved;
     }
 
     public Booking updateBooking(Booking booking) {
-        if (!bookingRepository.existsById(booking.getId())) {
-            throw new ResponseStatusException(NOT_FOUND, "Booking not found");
+        if (booking.getVehicle() != null && booking.getVehicle().getId() != null) {
+            lockVehicle(booking.getVehicle().getId());
         }
-        return bookingRepository.save(booking);
+        Booking existing = bookingRepository.findById(booking.getId())
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Booking not found"));
+        requireKnownStatus(booking);
+        checkNoConflicts(booking, booking.getId());
+        // The vehicle may change on update, so drop the old interval first
+        intervalIndex.bookingRemoved(existing.getVehicle().getId(), existing.getId());
+
+        Booking saved = bookingRepository.save(booking);
+        intervalIndex.bookingSaved(saved);
+        return saved;
     }
 
     public Booking getBookingById(Long id) {
@@ -69,6 +119,110 @@ public class BookingService {
         return bookingRepository.findAllBookingsWithEmail();
     }
 
+    private void lockVehicle(Long vehicleId) {
+        vehicleRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Vehicle not found"));
+    }
+
+    // The column is constrained to these values; reject others here rather than as a constraint violation
+    private void requireKnownStatus(Booking booking) {
+        if (!BookingStatus.isValid(booking.getBookingStatus())) {
+            throw new ResponseStatusException(BAD_REQUEST, "Booking status must be one of " + BookingStatus.ALL);
+        }
+    }
+
+    private void checkNoConflicts(Booking booking, Long excludeBookingId) {
+        if (!BookingStatus.holdsVehicle(booking.getBookingStatus())
+                || booking.getVehicle() == null
+                || booking.getPickupDate() == null || booking.getReturnDate() == null) {
+            return;
+        }
+        if (booking.getReturnDate().isBefore(booking.getPickupDate())) {
+            throw new ResponseStatusException(BAD_REQUEST, "Return date must not be before pickup date");
+        }
+        Long vehicleId = booking.getVehicle().getId();
+        if (bookingRepository.existsOverlappingActiveBooking(vehicleId,
+                booking.getPickupDate(), booking.getReturnDate(), excludeBookingId)) {
+            throw new ResponseStatusException(CONFLICT, "Vehicle is already booked for the selected period");
+        }
+        if (blockedPeriodRepository.existsOverlappingBlock(vehicleId,
+                booking.getPickupDate(), booking.getReturnDate())) {
+            throw new ResponseStatusException(CONFLICT, "Vehicle is blocked for the selected period");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BookingPageDTO getBookingsPage(BookingSearchRequest request) {
+        if (request.getLimit() < 1 || request.getLimit() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Fetch one extra row to know whether another page follows
+        List<BookingWithEmailDTO> rows = fetchPage(request, request.getLimit() + 1);
+        boolean hasMore = rows.size() > request.getLimit();
+        if (hasMore) {
+            rows = rows.subList(0, request.getLimit());
+        }
+        BookingWithEmailDTO last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new BookingPageDTO(rows, hasMore,
+                last != null ? last.getBookingID() : null,
+                last != null ? last.getPickupDate() : null);
+    }
+
+    /**
+     * Writes every matching booking to {@code out} as newline-delimited JSON. Rows are read in
+     * keyset chunks, each in its own short read, so memory stays flat and no connection is held
+     * while the client is slow to read.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamBookings(BookingSearchRequest request, OutputStream out) throws IOException {
+        BookingSearchRequest cursor = copyFilters(request);
+        while (true) {
+            List<BookingWithEmailDTO> rows = fetchPage(cursor, STREAM_CHUNK_SIZE);
+            for (BookingWithEmailDTO row : rows) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+            if (rows.size() < STREAM_CHUNK_SIZE) {
+                return;
+            }
+            BookingWithEmailDTO last = rows.get(rows.size() - 1);
+            cursor.setAfterId(last.getBookingID());
+            cursor.setAfterPickupDate(last.getPickupDate());
+        }
+    }
+
+    private List<BookingWithEmailDTO> fetchPage(BookingSearchRequest request, int limit) {
+        if ("pickupDate".equals(request.getSort())) {
+            if (request.getAfterPickupDate() != null && request.getAfterId() == null) {
+                throw new ResponseStatusException(BAD_REQUEST, "afterPickupDate requires afterId");
+            }
+            return bookingRepository.findBookingsWithEmailAfterPickupDate(
+                    BookingStatus.normalize(request.getStatus()), request.getVehicleId(), request.getCustomerId(),
+                    request.getFrom(), request.getTo(),
+                    request.getAfterPickupDate(), request.getAfterId(), limit);
+        }
+        if (!"id".equals(request.getSort())) {
+            throw new ResponseStatusException(BAD_REQUEST, "Sort must be 'id' or 'pickupDate'");
+        }
+        return bookingRepository.findBookingsWithEmailAfterId(
+                BookingStatus.normalize(request.getStatus()), request.getVehicleId(), request.getCustomerId(),
+                request.getFrom(), request.getTo(), request.getAfterId(), limit);
+    }
+
+    private BookingSearchRequest copyFilters(BookingSearchRequest request) {
+        BookingSearchRequest copy = new BookingSearchRequest();
+        copy.setStatus(request.getStatus());
+        copy.setVehicleId(request.getVehicleId());
+        copy.setCustomerId(request.getCustomerId());
+        copy.setFrom(request.getFrom());
+        copy.setTo(request.getTo());
+        copy.setSort(request.getSort());
+        copy.setAfterId(request.getAfterId());
+        copy.setAfterPickupDate(request.getAfterPickupDate());
+        return copy;
+    }
+
     @Transactional(readOnly = true)
     public BookingWithEmailDTO getBookingWithEmailById(Long id) {
         return bookingRepository.findBookingWithEmailById(id)
@@ -77,10 +231,10 @@ public class BookingService {
 
     public Booking cancelBooking(Long id) {
         Booking booking = getBookingById(id);
-        if ("CANCELLED".equals(booking.getBookingStatus())) {
+        if (BookingStatus.CANCELLED.equals(booking.getBookingStatus())) {
             throw new ResponseStatusException(BAD_REQUEST, "Booking already cancelled");
         }
-        booking.setBookingStatus("CANCELLED");
+        booking.setBookingStatus(BookingStatus.CANCELLED);
 
         // Make vehicle available again (if needed, implement this logic)
         // Vehicle vehicle = vehicleRepository.findById(booking.getVehicleID())
@@ -88,7 +242,9 @@ public class BookingService {
         // vehicle.setStatus(VehicleStatus.AVAILABLE);
         // vehicleRepository.save(vehicle);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        intervalIndex.bookingSaved(saved);
+        return saved;
     }
 
     public void deleteBooking(Long id) {
@@ -101,6 +257,7 @@ public class BookingService {
         //     vehicleRepository.save(vehicle);
         // }
         bookingRepository.delete(booking);
+        intervalIndex.bookingRemoved(booking.getVehicle().getId(), booking.getId());
     }
 
     @Transactional(readOnly = true)
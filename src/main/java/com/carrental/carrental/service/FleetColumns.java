@@ -0,0 +1,374 @@
+package com.carrental.carrental.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bookings, blocked periods and maintenance days of the whole fleet as primitive columns of epoch
+ * days, grouped per vehicle, for the utilization analytics.
+ * <p>
+ * Every span is stored as a half-open range {@code [start, end)} of epoch days: a booking covers
+ * {@code [pickupDate, returnDate)} (at least one day, as in {@link QuoteEngine}), a blocked
+ * period {@code [startDate, endDate]} and a maintenance row its one day in the shop. Spans are
+ * laid out vehicle after vehicle with an offsets array per kind (compressed sparse rows), so one
+ * vehicle's spans are a contiguous slice and no per-row objects exist. Instances are immutable.
+ */
+public final class FleetColumns {
+
+    /** Longest window {@link #aggregate} accepts; the per-task day map is one byte per day. */
+    public static final int MAX_WINDOW_DAYS = 3660;
+
+    // Day states, in priority order: a rented day that is also blocked counts as rented
+    private static final byte IDLE = 0;
+    private static final byte BLOCKED = 1;
+    private static final byte MAINTENANCE = 2;
+    private static final byte RENTED = 3;
+
+    // Leaves get roughly this many span days plus window days of work
+    private static final long LEAF_WORK = 1 << 16;
+
+    final long[] vehicleIds;
+    final int[] modelOf;
+    final String[] makes;
+    final String[] models;
+
+    private final Spans bookings;
+    private final Spans blocks;
+    private final Spans maintenance;
+
+    private FleetColumns(long[] vehicleIds, int[] modelOf, String[] makes, String[] models,
+                         Spans bookings, Spans blocks, Spans maintenance) {
+        this.vehicleIds = vehicleIds;
+        this.modelOf = modelOf;
+        this.makes = makes;
+        this.models = models;
+        this.bookings = bookings;
+        this.blocks = blocks;
+        this.maintenance = maintenance;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int vehicleCount() {
+        return vehicleIds.length;
+    }
+
+    public int bookingCount() {
+        return bookings.start.length;
+    }
+
+    /**
+     * Day counts, idle gaps and revenue per vehicle over {@code [from, to)}, computed in parallel
+     * on the common fork-join pool. Each leaf task owns a range of vehicles and writes only their
+     * slots of the result, so nothing is shared or locked.
+     */
+    public Totals aggregate(LocalDate from, LocalDate to) {
+        int fromDay = Math.toIntExact(from.toEpochDay());
+        int width = Math.toIntExact(to.toEpochDay() - fromDay);
+        if (width <= 0 || width > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must be 1 to " + MAX_WINDOW_DAYS + " days");
+        }
+        Totals totals = new Totals(vehicleIds.length, width);
+        if (vehicleIds.length > 0) {
+            ForkJoinPool.commonPool().invoke(new VehicleRangeTask(totals, fromDay, 0, vehicleIds.length));
+        }
+        return totals;
+    }
+
+    private final class VehicleRangeTask extends RecursiveAction {
+        private final Totals totals;
+        private final int fromDay;
+        private final int lo;
+        private final int hi;
+
+        VehicleRangeTask(Totals totals, int fromDay, int lo, int hi) {
+            this.totals = totals;
+            this.fromDay = fromDay;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && work() > LEAF_WORK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new VehicleRangeTask(totals, fromDay, lo, mid), new VehicleRangeTask(totals, fromDay, mid, hi));
+                return;
+            }
+            byte[] days = new byte[totals.windowDays];
+            for (int row = lo; row < hi; row++) {
+                aggregateVehicle(row, fromDay, days, totals);
+            }
+        }
+
+        // Spans are a few days each, so the span count stands in for the days they mark
+        private long work() {
+            long spans = (long) bookings.offsets[hi] - bookings.offsets[lo]
+                    + blocks.offsets[hi] - blocks.offsets[lo]
+                    + maintenance.offsets[hi] - maintenance.offsets[lo];
+            return spans * 4 + (long) (hi - lo) * totals.windowDays;
+        }
+    }
+
+    private void aggregateVehicle(int row, int fromDay, byte[] days, Totals totals) {
+        int toDay = fromDay + days.length;
+        Arrays.fill(days, IDLE);
+        // Lowest priority first, so later marks overwrite earlier ones
+        mark(blocks, row, fromDay, toDay, days, BLOCKED);
+        mark(maintenance, row, fromDay, toDay, days, MAINTENANCE);
+        mark(bookings, row, fromDay, toDay, days, RENTED);
+
+        long revenue = 0;
+        for (int i = bookings.offsets[row], end = bookings.offsets[row + 1]; i < end; i++) {
+            int overlap = Math.min(bookings.end[i], toDay) - Math.max(bookings.start[i], fromDay);
+            if (overlap > 0) {
+                // The booking's total spread evenly over its days; only the days in the window count
+                revenue += bookings.amount[i] * overlap / (bookings.end[i] - bookings.start[i]);
+            }
+        }
+
+        int rented = 0;
+        int blocked = 0;
+        int inMaintenance = 0;
+        int gaps = 0;
+        int longestGap = 0;
+        int run = 0;
+        for (byte state : days) {
+            if (state == IDLE) {
+                run++;
+                continue;
+            }
+            if (run > 0) {
+                gaps++;
+                longestGap = Math.max(longestGap, run);
+                run = 0;
+            }
+            switch (state) {
+                case RENTED -> rented++;
+                case MAINTENANCE -> inMaintenance++;
+                default -> blocked++;
+            }
+        }
+        if (run > 0) {
+            gaps++;
+            longestGap = Math.max(longestGap, run);
+        }
+        totals.rentedDays[row] = rented;
+        totals.blockedDays[row] = blocked;
+        totals.maintenanceDays[row] = inMaintenance;
+        totals.gaps[row] = gaps;
+        totals.longestGap[row] = longestGap;
+        totals.revenueCents[row] = revenue;
+    }
+
+    private static void mark(Spans spans, int row, int fromDay, int toDay, byte[] days, byte state) {
+        for (int i = spans.offsets[row], end = spans.offsets[row + 1]; i < end; i++) {
+            int start = Math.max(spans.start[i], fromDay);
+            int stop = Math.min(spans.end[i], toDay);
+            if (start < stop) {
+                Arrays.fill(days, start - fromDay, stop - fromDay, state);
+            }
+        }
+    }
+
+    /**
+     * Per-vehicle results of {@link #aggregate}, indexed like the vehicle columns (id order).
+     * Idle days are the window days that are not rented, blocked or in maintenance; a gap is a
+     * maximal run of them.
+     */
+    public static final class Totals {
+        public final int windowDays;
+        public final int[] rentedDays;
+        public final int[] blockedDays;
+        public final int[] maintenanceDays;
+        public final int[] gaps;
+        public final int[] longestGap;
+        public final long[] revenueCents;
+
+        Totals(int vehicles, int windowDays) {
+            this.windowDays = windowDays;
+            this.rentedDays = new int[vehicles];
+            this.blockedDays = new int[vehicles];
+            this.maintenanceDays = new int[vehicles];
+            this.gaps = new int[vehicles];
+            this.longestGap = new int[vehicles];
+            this.revenueCents = new long[vehicles];
+        }
+
+        public int idleDays(int row) {
+            return windowDays - rentedDays[row] - blockedDays[row] - maintenanceDays[row];
+        }
+    }
+
+    // start[i], end[i] (and amount[i] for bookings) for the spans of vehicle row r at offsets[r] until offsets[r + 1]
+    private static final class Spans {
+        final int[] offsets;
+        final int[] start;
+        final int[] end;
+        final long[] amount;
+
+        Spans(int[] offsets, int[] start, int[] end, long[] amount) {
+            this.offsets = offsets;
+            this.start = start;
+            this.end = end;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * Collects rows in any order; {@link #build()} groups them per vehicle. Spans of vehicles that
+     * were not added are dropped.
+     */
+    public static final class Builder {
+        private final SpanBuffer bookings = new SpanBuffer(true);
+        private final SpanBuffer blocks = new SpanBuffer(false);
+        private final SpanBuffer maintenance = new SpanBuffer(false);
+        private long[] vehicleIds = new long[256];
+        private String[] vehicleMakes = new String[256];
+        private String[] vehicleModels = new String[256];
+        private int vehicles;
+
+        private Builder() {
+        }
+
+        public Builder addVehicle(long id, String make, String model) {
+            if (vehicles == vehicleIds.length) {
+                vehicleIds = Arrays.copyOf(vehicleIds, vehicles * 2);
+                vehicleMakes = Arrays.copyOf(vehicleMakes, vehicles * 2);
+                vehicleModels = Arrays.copyOf(vehicleModels, vehicles * 2);
+            }
+            vehicleIds[vehicles] = id;
+            vehicleMakes[vehicles] = make;
+            vehicleModels[vehicles] = model;
+            vehicles++;
+            return this;
+        }
+
+        /**
+         * @param returnDay exclusive; a same-day return still counts as one day
+         */
+        public Builder addBooking(long vehicleId, long pickupDay, long returnDay, long totalCents) {
+            bookings.add(vehicleId, pickupDay, Math.max(returnDay, pickupDay + 1), Math.max(0, totalCents));
+            return this;
+        }
+
+        /**
+         * @param endDay inclusive, as stored on {@code BlockedPeriod}
+         */
+        public Builder addBlock(long vehicleId, long startDay, long endDay) {
+            if (endDay >= startDay) {
+                blocks.add(vehicleId, startDay, endDay + 1, 0);
+            }
+            return this;
+        }
+
+        public Builder addMaintenanceDay(long vehicleId, long day) {
+            maintenance.add(vehicleId, day, day + 1, 0);
+            return this;
+        }
+
+        public FleetColumns build() {
+            // Rows arrive in id order from the database; sort anyway so lookups can binary search
+            Integer[] order = new Integer[vehicles];
+            for (int i = 0; i < vehicles; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(vehicleIds[a], vehicleIds[b]));
+            long[] ids = new long[vehicles];
+            int[] modelOf = new int[vehicles];
+            Map<String, Integer> modelIndex = new HashMap<>();
+            String[] makes = new String[vehicles];
+            String[] models = new String[vehicles];
+            for (int row = 0; row < vehicles; row++) {
+                int i = order[row];
+                ids[row] = vehicleIds[i];
+                String make = vehicleMakes[i] == null ? "" : vehicleMakes[i];
+                String model = vehicleModels[i] == null ? "" : vehicleModels[i];
+                // NUL cannot appear in either value, so the key is unambiguous
+                Integer index = modelIndex.get(make + '\0' + model);
+                if (index == null) {
+                    index = modelIndex.size();
+                    modelIndex.put(make + '\0' + model, index);
+                    makes[index] = make;
+                    models[index] = model;
+                }
+                modelOf[row] = index;
+            }
+            int modelCount = modelIndex.size();
+            return new FleetColumns(ids, modelOf, Arrays.copyOf(makes, modelCount), Arrays.copyOf(models, modelCount),
+                    bookings.group(ids), blocks.group(ids), maintenance.group(ids));
+        }
+    }
+
+    // Growable columns in arrival order, grouped per vehicle row by a counting sort
+    private static final class SpanBuffer {
+        private long[] vehicle = new long[1024];
+        private int[] start = new int[1024];
+        private int[] end = new int[1024];
+        private long[] cents;
+        private int size;
+
+        SpanBuffer(boolean withCents) {
+            this.cents = withCents ? new long[1024] : null;
+        }
+
+        void add(long vehicleId, long startDay, long endDay, long amount) {
+            if (size == start.length) {
+                int capacity = size * 2;
+                vehicle = Arrays.copyOf(vehicle, capacity);
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                if (cents != null) {
+                    cents = Arrays.copyOf(cents, capacity);
+                }
+            }
+            vehicle[size] = vehicleId;
+            start[size] = Math.toIntExact(startDay);
+            end[size] = Math.toIntExact(endDay);
+            if (cents != null) {
+                cents[size] = amount;
+            }
+            size++;
+        }
+
+        Spans group(long[] ids) {
+            int[] rowOf = new int[size];
+            int[] offsets = new int[ids.length + 1];
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int row = Arrays.binarySearch(ids, vehicle[i]);
+                rowOf[i] = row;
+                if (row >= 0) {
+                    offsets[row + 1]++;
+                    kept++;
+                }
+            }
+            for (int row = 0; row < ids.length; row++) {
+                offsets[row + 1] += offsets[row];
+            }
+            int[] next = Arrays.copyOf(offsets, ids.length);
+            int[] groupedStart = new int[kept];
+            int[] groupedEnd = new int[kept];
+            long[] groupedCents = cents == null ? null : new long[kept];
+            for (int i = 0; i < size; i++) {
+                int row = rowOf[i];
+                if (row < 0) {
+                    continue;
+                }
+                int slot = next[row]++;
+                groupedStart[slot] = start[i];
+                groupedEnd[slot] = end[i];
+                if (groupedCents != null) {
+                    groupedCents[slot] = cents[i];
+                }
+            }
+            return new Spans(offsets, groupedStart, groupedEnd, groupedCents);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.AvailabilityStatsDTO;
+import com.carrental.carrental.model.VehicleChangedEvent;
+import com.carrental.carrental.model.VehicleStatus;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.VehicleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fleet-wide counters behind {@code /api/availability/stats}.
+ * <p>
+ * Vehicle and blocked-period writes adjust the counters after their transaction commits,
+ * so reading them never touches the database. Anything that bypasses those hooks (bulk SQL,
+ * blocks expiring as days pass, other nodes) is corrected by the periodic reconciliation,
+ * which counts on the primary.
+ */
+@Component
+public class FleetCounters {
+
+    private final VehicleRepository vehicleRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final PrimaryReads primaryReads;
+
+    private final AtomicReference<Counts> counts = new AtomicReference<>();
+
+    public FleetCounters(VehicleRepository vehicleRepository,
+                         BlockedPeriodRepository blockedPeriodRepository,
+                         PrimaryReads primaryReads) {
+        this.vehicleRepository = vehicleRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.primaryReads = primaryReads;
+    }
+
+    public AvailabilityStatsDTO getStats() {
+        Counts current = counts.get();
+        if (current == null) {
+            current = reconcile();
+        }
+        return new AvailabilityStatsDTO(current.total, current.available, current.rented,
+                current.maintenance, current.blocked);
+    }
+
+    @EventListener
+    public void vehicleChanged(VehicleChangedEvent event) {
+        switch (event.change()) {
+            case ADDED -> vehicleAdded(event.status());
+            case UPDATED -> vehicleStatusChanged(event.previousStatus(), event.status());
+            case REMOVED -> vehicleRemoved(event.previousStatus());
+        }
+    }
+
+    public void vehicleAdded(String status) {
+        TransactionHooks.afterCommit(() -> update(c -> c.plusVehicle(status, 1)));
+    }
+
+    public void vehicleRemoved(String status) {
+        TransactionHooks.afterCommit(() -> update(c -> c.plusVehicle(status, -1)));
+    }
+
+    public void vehicleStatusChanged(String oldStatus, String newStatus) {
+        if (sameStatus(oldStatus, newStatus)) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> update(c -> c.plusStatus(oldStatus, -1).plusStatus(newStatus, 1)));
+    }
+
+    public void activeBlocksChanged(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> update(c -> c.plusBlocked(delta)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${fleet.counters.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recounts from the database and replaces the in-memory values.
+     */
+    public Counts reconcile() {
+        Counts fresh = primaryReads.read(this::count);
+        counts.set(fresh);
+        return fresh;
+    }
+
+    private Counts count() {
+        long available = 0;
+        long rented = 0;
+        long maintenance = 0;
+        long total = 0;
+        for (Object[] row : vehicleRepository.countByStatus()) {
+            String status = (String) row[0];
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            if (sameStatus(VehicleStatus.AVAILABLE, status)) {
+                available += count;
+            } else if (sameStatus(VehicleStatus.RENTED, status)) {
+                rented += count;
+            } else if (sameStatus(VehicleStatus.MAINTENANCE, status)) {
+                maintenance += count;
+            }
+        }
+        long blocked = blockedPeriodRepository.countActiveBlocks();
+        return new Counts(total, available, rented, maintenance, blocked);
+    }
+
+    private void update(UnaryOperator<Counts> change) {
+        // Until the first reconciliation there is nothing to adjust; it will read the committed rows
+        counts.updateAndGet(current -> current == null ? null : change.apply(current));
+    }
+
+    private static boolean sameStatus(String a, String b) {
+        return a == null ? b == null : a.equalsIgnoreCase(b);
+    }
+
+    public record Counts(long total, long available, long rented, long maintenance, long blocked) {
+
+        Counts plusVehicle(String status, long delta) {
+            return new Counts(total + delta, available, rented, maintenance, blocked).plusStatus(status, delta);
+        }
+
+        Counts plusStatus(String status, long delta) {
+            if (sameStatus(VehicleStatus.AVAILABLE, status)) {
+                return new Counts(total, available + delta, rented, maintenance, blocked);
+            }
+            if (sameStatus(VehicleStatus.RENTED, status)) {
+                return new Counts(total, available, rented + delta, maintenance, blocked);
+            }
+            if (sameStatus(VehicleStatus.MAINTENANCE, status)) {
+                return new Counts(total, available, rented, maintenance + delta, blocked);
+            }
+            return this;
+        }
+
+        Counts plusBlocked(long delta) {
+            return new Counts(total, available, rented, maintenance, blocked + delta);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.model.Incident;
+import com.carrental.carrental.model.IncidentFollowUp;
+import com.carrental.carrental.repository.IncidentFollowUpRepository;
+import com.carrental.carrental.repository.IncidentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over incident descriptions and follow-up notes, ranked with BM25.
+ * <p>
+ * Built from the database when the application starts and kept current by
+ * {@link IncidentService} after each committed create, follow-up or delete. A search only
+ * touches the posting lists of its terms, so it never scans the incident table. Description
+ * terms count double, since the description says what the claim is about. Rebuilds read the
+ * primary, like every other shared in-memory copy.
+ */
+@Component
+public class IncidentSearchIndex {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in", "is", "it",
+            "of", "on", "or", "that", "the", "to", "was", "were", "with");
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentFollowUpRepository followUpRepository;
+    private final PrimaryReads primaryReads;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> incident id -> weighted term frequency
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // incident id -> its terms, so a document can be removed without scanning every posting list
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+
+    public IncidentSearchIndex(IncidentRepository incidentRepository,
+                               IncidentFollowUpRepository followUpRepository,
+                               PrimaryReads primaryReads) {
+        this.incidentRepository = incidentRepository;
+        this.followUpRepository = followUpRepository;
+        this.primaryReads = primaryReads;
+    }
+
+    /**
+     * Reloads everything from the database. Searches wait until the rebuild is finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                List<Incident> incidents = primaryReads.read(
+                        () -> incidentRepository.findByIdGreaterThanOrderById(cursor, Limit.of(REBUILD_CHUNK_SIZE)));
+                if (incidents.isEmpty()) {
+                    return;
+                }
+                List<Long> incidentIds = incidents.stream().map(Incident::getId).collect(Collectors.toList());
+                Map<Long, List<IncidentFollowUp>> notes = primaryReads.read(() -> followUpRepository.findByIncidentIdIn(incidentIds))
+                        .stream()
+                        .collect(Collectors.groupingBy(IncidentFollowUp::getIncidentId));
+                for (Incident incident : incidents) {
+                    add(incident.getId(), incident.getDescription(), DESCRIPTION_WEIGHT);
+                    add(incident.getId(), incident.getFollowUpNotes(), 1);
+                    for (IncidentFollowUp note : notes.getOrDefault(incident.getId(), List.of())) {
+                        add(incident.getId(), note.getNotes(), 1);
+                    }
+                }
+                afterId = incidents.get(incidents.size() - 1).getId();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void incidentSaved(Incident incident) {
+        Long id = incident.getId();
+        String description = incident.getDescription();
+        String legacyNotes = incident.getFollowUpNotes();
+        TransactionHooks.afterCommit(() -> write(() -> {
+            remove(id);
+            add(id, description, DESCRIPTION_WEIGHT);
+            add(id, legacyNotes, 1);
+        }));
+    }
+
+    public void followUpAdded(IncidentFollowUp followUp) {
+        Long id = followUp.getIncidentId();
+        String notes = followUp.getNotes();
+        TransactionHooks.afterCommit(() -> write(() -> add(id, notes, 1)));
+    }
+
+    public void incidentRemoved(Long id) {
+        TransactionHooks.afterCommit(() -> write(() -> remove(id)));
+    }
+
+    /**
+     * Incidents matching any of the query terms, best first. {@link SearchResult#total()} counts
+     * every match so callers can page.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().collect(Collectors.toList());
+        if (terms.isEmpty()) {
+            return new SearchResult(0, List.of());
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    double tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * lengths.get(entry.getKey()) / averageLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            List<Hit> hits = scores.entrySet().stream()
+                    .map(e -> new Hit(e.getKey(), e.getValue()))
+                    .sorted(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::incidentId))
+                    .skip(offset)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+            return new SearchResult(scores.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower-cased letter/digit runs without stop words, with a plain plural "s" dropped
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+                token = token.substring(0, token.length() - 1);
+            }
+            terms.add(token);
+        }
+        return terms;
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(Long id, String text, int weight) {
+        List<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            if (!documents.containsKey(id)) {
+                documents.put(id, new HashMap<>());
+                lengths.put(id, 0);
+            }
+            return;
+        }
+        Map<String, Integer> document = documents.computeIfAbsent(id, k -> new HashMap<>());
+        for (String term : terms) {
+            document.merge(term, weight, Integer::sum);
+            postings.computeIfAbsent(term, k -> new HashMap<>()).merge(id, weight, Integer::sum);
+        }
+        lengths.merge(id, terms.size() * weight, Integer::sum);
+        totalLength += (long) terms.size() * weight;
+    }
+
+    private void remove(Long id) {
+        Map<String, Integer> document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        Integer length = lengths.remove(id);
+        totalLength -= length != null ? length : 0;
+    }
+
+    public record Hit(Long incidentId, double score) {
+    }
+
+    public record SearchResult(long total, List<Hit> hits) {
+    }
+}
@@ -4,24 +4,42 @@ package com.carrental.carrental.service;
 
 
 import com.carrental.carrental.model.Incident;
+import com.carrental.carrental.model.IncidentFollowUp;
+import com.carrental.carrental.repository.IncidentFollowUpRepository;
 import com.carrental.carrental.repository.IncidentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class IncidentService {
     @Autowired
     private IncidentRepository repository;
 
+    @Autowired
+    private IncidentFollowUpRepository followUpRepository;
+
+    @Autowired
+    private IncidentSearchIndex searchIndex;
+
     public Incident createIncident(Incident incident) {
         if (incident == null) {
             throw new IllegalArgumentException("Incident cannot be null");
         }
         incident.setStatus("OPEN");
-        return repository.save(incident);
+        Incident saved = repository.save(incident);
+        searchIndex.incidentSaved(saved);
+        return saved;
     }
 
     public List<Incident> getByVehicle(Long vehicleId) {
@@ -38,20 +56,86 @@ public class IncidentService {
         return repository.findByCustomerId(customerId);
     }
 
-    public Incident addFollowUp(Long id, String notes) {
+    /**
+     * Appends a follow-up note. Only the note row is inserted; the incident row is never rewritten,
+     * so concurrent follow-ups cannot overwrite each other.
+     */
+    public IncidentFollowUp addFollowUp(Long id, String notes, String author) {
         if (id == null) {
             throw new IllegalArgumentException("Incident ID cannot be null");
         }
         if (notes == null || notes.trim().isEmpty()) {
             throw new IllegalArgumentException("Follow-up notes cannot be null or empty");
         }
-        Incident incident = repository.findById(id)
+        if (!repository.existsById(id)) {
+            throw new RuntimeException("Incident not found with ID: " + id);
+        }
+        IncidentFollowUp followUp = new IncidentFollowUp();
+        followUp.setIncidentId(id);
+        followUp.setAuthor(author);
+        followUp.setNotes(notes.trim());
+        followUp.setCreatedAt(LocalDateTime.now());
+        IncidentFollowUp saved = followUpRepository.save(followUp);
+        searchIndex.followUpAdded(saved);
+        return saved;
+    }
+
+    public Page<IncidentFollowUp> getFollowUps(Long id, Pageable pageable) {
+        if (id == null) {
+            throw new IllegalArgumentException("Incident ID cannot be null");
+        }
+        if (!repository.existsById(id)) {
+            throw new RuntimeException("Incident not found with ID: " + id);
+        }
+        return followUpRepository.findByIncidentId(id, pageable);
+    }
+
+    /**
+     * Ranked full-text search over descriptions and follow-up notes. Incidents come back in rank
+     * order; the total counts every match.
+     */
+    public Page<Incident> search(String query, Pageable pageable) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        }
+        IncidentSearchIndex.SearchResult result = searchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = result.hits().stream().map(IncidentSearchIndex.Hit::incidentId).collect(Collectors.toList());
+        Map<Long, Incident> incidents = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+        // An incident deleted since the lookup is simply left out
+        List<Incident> ranked = ids.stream().map(incidents::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, result.total());
+    }
+
+    public Incident getById(Long id) {
+        return repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Incident not found with ID: " + id));
-        String existingNotes = incident.getFollowUpNotes() != null ? incident.getFollowUpNotes() : "";
-        incident.setFollowUpNotes(existingNotes + "\n" + notes.trim());
-        return repository.save(incident);
     }
 
+    /**
+     * The incident as the old follow-up endpoint returned it: {@code followUpNotes} holds the notes
+     * kept on the incident row followed by every appended note, one per line. Returns a copy, so
+     * the stored incident is left alone.
+     */
+    public Incident getWithAllFollowUpNotes(Long id) {
+        Incident incident = getById(id);
+        StringBuilder notes = new StringBuilder(incident.getFollowUpNotes() != null ? incident.getFollowUpNotes() : "");
+        for (IncidentFollowUp followUp : followUpRepository.findByIncidentIdOrderById(id)) {
+            notes.append('\n').append(followUp.getNotes());
+        }
+        Incident legacy = new Incident();
+        legacy.setId(incident.getId());
+        legacy.setDescription(incident.getDescription());
+        legacy.setIncidentDate(incident.getIncidentDate());
+        legacy.setRentalId(incident.getRentalId());
+        legacy.setVehicleId(incident.getVehicleId());
+        legacy.setCustomerId(incident.getCustomerId());
+        legacy.setStatus(incident.getStatus());
+        legacy.setFollowUpNotes(notes.toString());
+        return legacy;
+    }
+
+    @Transactional
     public void deleteIncident(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("Incident ID cannot be null");
@@ -59,7 +143,9 @@ public class IncidentService {
         if (!repository.existsById(id)) {
             throw new RuntimeException("Incident not found with ID: " + id);
         }
+        followUpRepository.deleteByIncidentId(id);
         repository.deleteById(id);
+        searchIndex.incidentRemoved(id);
     }
 }
 
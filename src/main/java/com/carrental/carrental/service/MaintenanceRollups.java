@@ -0,0 +1,137 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.enums.MaintenanceStatus;
+import com.carrental.carrental.model.Maintenance;
+import com.carrental.carrental.model.MaintenanceSummary;
+import com.carrental.carrental.repository.MaintenanceRepository;
+import com.carrental.carrental.repository.MaintenanceSummaryRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Keeps {@link MaintenanceSummary} in step with the Maintenance table. Each call applies the
+ * difference made by one write, under a row lock on the summary, inside the caller's
+ * transaction. Only when the latest service date itself goes away is the history consulted,
+ * through a single MAX over the (VehicleID, service_date) index.
+ * <p>
+ * A vehicle's first entry finds no summary row to lock. The empty row is then inserted and
+ * committed on its own first, with a duplicate from a concurrent first writer ignored, so every
+ * writer ends up locking the same row instead of racing to insert it.
+ */
+@Component
+public class MaintenanceRollups {
+
+    private final MaintenanceSummaryRepository summaryRepository;
+    private final MaintenanceRepository maintenanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate separate;
+
+    public MaintenanceRollups(MaintenanceSummaryRepository summaryRepository,
+                              MaintenanceRepository maintenanceRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.maintenanceRepository = maintenanceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.separate = new TransactionTemplate(transactionManager);
+        this.separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public MaintenanceSummary getSummary(Long vehicleId) {
+        return summaryRepository.findById(vehicleId).orElseGet(() -> new MaintenanceSummary(vehicleId));
+    }
+
+    public void added(Maintenance maintenance) {
+        Snapshot after = Snapshot.of(maintenance);
+        MaintenanceSummary summary = lock(after.vehicleId());
+        apply(summary, after, 1);
+        if (isAfter(after.serviceDate(), summary.getLastServiceDate())) {
+            summary.setLastServiceDate(after.serviceDate());
+        }
+        summaryRepository.save(summary);
+    }
+
+    public void changed(Snapshot before, Maintenance maintenance) {
+        Snapshot after = Snapshot.of(maintenance);
+        MaintenanceSummary summary = lock(after.vehicleId());
+        apply(summary, before, -1);
+        apply(summary, after, 1);
+        if (isAfter(after.serviceDate(), summary.getLastServiceDate())) {
+            summary.setLastServiceDate(after.serviceDate());
+        } else if (before.serviceDate() != null && before.serviceDate().equals(summary.getLastServiceDate())
+                && !before.serviceDate().equals(after.serviceDate())) {
+            // The latest entry moved back in time, so some other entry may now be the latest
+            summary.setLastServiceDate(maintenanceRepository.findLatestServiceDate(after.vehicleId()));
+        }
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Call after the entry has been deleted in the current transaction.
+     */
+    public void removed(Snapshot before) {
+        MaintenanceSummary summary = lock(before.vehicleId());
+        apply(summary, before, -1);
+        if (before.serviceDate() != null && before.serviceDate().equals(summary.getLastServiceDate())) {
+            summary.setLastServiceDate(maintenanceRepository.findLatestServiceDate(before.vehicleId()));
+        }
+        summaryRepository.save(summary);
+    }
+
+    private MaintenanceSummary lock(Long vehicleId) {
+        // Checked without a lock: a locking read of a missing row would hold a gap lock that blocks the insert
+        if (!summaryRepository.existsById(vehicleId)) {
+            createEmptySummary(vehicleId);
+        }
+        return summaryRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> new IllegalStateException("No maintenance summary for vehicle " + vehicleId));
+    }
+
+    // A vehicle without a summary row has no maintenance entries yet, so all zeros is correct
+    private void createEmptySummary(Long vehicleId) {
+        separate.executeWithoutResult(status -> {
+            try {
+                jdbcTemplate.update("INSERT INTO Maintenance_Summary (VehicleID, TotalCost, PendingCount, "
+                        + "InProgressCount, CompletedCount) VALUES (?, 0, 0, 0, 0)", vehicleId);
+            } catch (DuplicateKeyException e) {
+                // A concurrent first entry created it
+            }
+        });
+    }
+
+    private static void apply(MaintenanceSummary summary, Snapshot entry, int sign) {
+        if (entry.cost() != null) {
+            BigDecimal delta = sign > 0 ? entry.cost() : entry.cost().negate();
+            summary.setTotalCost(summary.getTotalCost().add(delta));
+        }
+        if (entry.status() == null) {
+            return;
+        }
+        switch (entry.status()) {
+            case PENDING -> summary.setPendingCount(summary.getPendingCount() + sign);
+            case IN_PROGRESS -> summary.setInProgressCount(summary.getInProgressCount() + sign);
+            case COMPLETED -> summary.setCompletedCount(summary.getCompletedCount() + sign);
+        }
+    }
+
+    private static boolean isAfter(LocalDate date, LocalDate current) {
+        return date != null && (current == null || date.isAfter(current));
+    }
+
+    /**
+     * The fields of a maintenance entry that the summary depends on, taken before a change.
+     */
+    public record Snapshot(Long vehicleId, BigDecimal cost, MaintenanceStatus status, LocalDate serviceDate) {
+        public static Snapshot of(Maintenance maintenance) {
+            return new Snapshot(maintenance.getVehicle().getId(), maintenance.getCost(),
+                    maintenance.getStatus(), maintenance.getServiceDate());
+        }
+    }
+}
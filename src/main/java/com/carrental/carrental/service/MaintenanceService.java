@@ -5,19 +5,27 @@ import com.carrental.carrental.model.Vehicle;
 import com.carrental.carrental.model.VehicleStatus;
 import com.carrental.carrental.repository.MaintenanceRepository;
 import com.carrental.carrental.enums.MaintenanceStatus;
+import com.carrental.carrental.model.MaintenanceSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 
 @Service
+@Transactional
 public class MaintenanceService {
 
     private final MaintenanceRepository maintenanceRepository;
     private final VehicleService vehicleService;
+    private final MaintenanceRollups rollups;
 
-    public MaintenanceService(MaintenanceRepository maintenanceRepository, VehicleService vehicleService) {
+    public MaintenanceService(MaintenanceRepository maintenanceRepository, VehicleService vehicleService,
+                              MaintenanceRollups rollups) {
         this.maintenanceRepository = maintenanceRepository;
         this.vehicleService = vehicleService;
+        this.rollups = rollups;
     }
 
     public Maintenance logMaintenance(Maintenance maintenance) {
@@ -27,13 +35,28 @@ public class MaintenanceService {
             vehicle.setStatus(VehicleStatus.MAINTENANCE);
             vehicleService.updateVehicle(vehicle);
         }
-        return maintenanceRepository.save(maintenance);
+        Maintenance saved = maintenanceRepository.save(maintenance);
+        rollups.added(saved);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Maintenance> getMaintenanceHistoryByCar(Long carId) {
         return maintenanceRepository.findByVehicle_IdOrderByServiceDateDesc(carId);
     }
 
+    @Transactional(readOnly = true)
+    public Page<Maintenance> getMaintenanceHistoryByCar(Long carId, Pageable pageable) {
+        return maintenanceRepository.findByVehicle_Id(carId, pageable);
+    }
+
+    // Totals come from the rollup row, never from scanning the history
+    @Transactional(readOnly = true)
+    public MaintenanceSummary getMaintenanceSummary(Long carId) {
+        return rollups.getSummary(carId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Maintenance> getMaintenanceByCarAndStatus(Long carId, MaintenanceStatus status) {
         return maintenanceRepository.findByVehicle_IdAndStatusOrderByServiceDateDesc(carId, status);
     }
@@ -41,6 +64,7 @@ public class MaintenanceService {
     public Maintenance updateMaintenance(Long id, Maintenance updatedMaintenance) {
         Maintenance maintenance = maintenanceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Maintenance entry not found"));
+        MaintenanceRollups.Snapshot before = MaintenanceRollups.Snapshot.of(maintenance);
 
         if (updatedMaintenance.getIssue() != null) {
             maintenance.setIssue(updatedMaintenance.getIssue());
@@ -65,12 +89,16 @@ public class MaintenanceService {
             maintenance.setServiceDate(updatedMaintenance.getServiceDate());
         }
 
-        return maintenanceRepository.save(maintenance);
+        Maintenance saved = maintenanceRepository.save(maintenance);
+        rollups.changed(before, saved);
+        return saved;
     }
 
     public void deleteMaintenance(Long id) {
         Maintenance maintenance = maintenanceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Maintenance entry not found"));
+        MaintenanceRollups.Snapshot before = MaintenanceRollups.Snapshot.of(maintenance);
         maintenanceRepository.delete(maintenance);
+        rollups.removed(before);
     }
 }
\ No newline at end of file
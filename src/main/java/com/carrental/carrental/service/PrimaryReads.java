@@ -0,0 +1,49 @@
+package com.carrental.carrental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the reads that fill shared in-memory state (indexes, snapshots, counters, rate tables) on
+ * the primary. Such state is refilled right after a commit and then served to everyone, so it must
+ * not come from a replica that has not caught up yet; only reads whose result goes back to the one
+ * request that made them may be served by the replica.
+ * <p>
+ * The work runs in a read-write transaction, which the routing data source sends to the primary.
+ * Called from a read-only transaction while read/write routing is enabled, it gets a transaction
+ * of its own; otherwise it joins the current one.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionTemplate joining;
+    private final TransactionTemplate separate;
+    private final boolean replicaEnabled;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${replica.enabled:false}") boolean replicaEnabled) {
+        this.joining = new TransactionTemplate(transactionManager);
+        this.separate = new TransactionTemplate(transactionManager);
+        this.separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    public <T> T read(Supplier<T> work) {
+        boolean onReplica = replicaEnabled && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return (onReplica ? separate : joining).execute(status -> work.get());
+    }
+
+    /**
+     * Like {@link #read}, but never joins the caller's transaction, so it neither sees the caller's
+     * uncommitted rows nor starts its snapshot early. Holds a second connection while it runs.
+     */
+    public <T> T readSeparately(Supplier<T> work) {
+        return separate.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,307 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.QuoteDTO;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.VehicleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Prices a rental from the vehicle's weekly rate.
+ * <p>
+ * A rental lasts {@code endDate - startDate} days, at least one. Whole weeks cost the weekly
+ * rate; the remaining days cost their share of it ({@code weeklyRate * days / 7}, rounded half
+ * up to the cent) but never more than a whole week. The included mileage is
+ * {@code mileageLimitPerDay * days}.
+ * <p>
+ * Rates are kept as a table per vehicle in {@code long} cents, with the price of 0 to 6 extra
+ * days worked out in advance, so pricing a range is one multiply and one add without any
+ * {@link BigDecimal} arithmetic. The tables are loaded from the primary, pricing columns only,
+ * at startup; after that a Vehicle change committed here re-reads just that vehicle's row on the
+ * next quote, and every {@code quote.rates.check-ms} the whole table is reloaded if the shared
+ * Vehicle {@link TableVersions version} moved, which also covers changes made on other nodes.
+ * Quotes may therefore lag another node by that interval; a price that is stored with a booking
+ * ({@link #findPrice}) is always worked out from the vehicle's row as it is now. Loads run in
+ * their own transaction, so pricing inside a booking's transaction never issues a statement of
+ * its own there.
+ */
+@Service
+public class QuoteEngine {
+
+    // Beyond this many changed vehicles one full reload is cheaper than a long IN list
+    private static final int MAX_ROW_REFRESH = 500;
+
+    private final VehicleRepository vehicleRepository;
+    private final PrimaryReads primaryReads;
+    private final TableVersions tableVersions;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile boolean reloadAll = true;
+    private volatile RateCard rateCard;
+    // Vehicle version read just before the last full load
+    private volatile long loadedVersion;
+
+    public QuoteEngine(VehicleRepository vehicleRepository, PrimaryReads primaryReads, TableVersions tableVersions) {
+        this.vehicleRepository = vehicleRepository;
+        this.primaryReads = primaryReads;
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Marks a vehicle's rates for re-reading on the next quote. Call after commit.
+     */
+    public void vehicleChanged(long vehicleId) {
+        changed.add(vehicleId);
+    }
+
+    /**
+     * Schedules a reload of the whole fleet, for writes that do not name their vehicles.
+     */
+    public void invalidateAll() {
+        reloadAll = true;
+    }
+
+    public QuoteDTO quote(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        long days = rentalDays(startDate, endDate);
+        RateCard card = rateCard();
+        int row = card.row(vehicleId);
+        if (row < 0) {
+            throw new ResponseStatusException(NOT_FOUND, "Vehicle not found");
+        }
+        if (card.weeklyCents[row] < 0) {
+            throw new ResponseStatusException(BAD_REQUEST, "Vehicle has no weekly rate");
+        }
+        return toDto(card, row, startDate, endDate, days, card.price(row, days));
+    }
+
+    /**
+     * Price of the range, or empty when the vehicle is unknown, has no weekly rate or the dates
+     * are not a valid range. Meant to be stored, so the vehicle's rates are read afresh rather than
+     * taken from the shared tables, which may not have caught up with another node yet.
+     */
+    public Optional<BigDecimal> findPrice(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        if (vehicleId == null || startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            return Optional.empty();
+        }
+        RateCard card = RateCard.of(primaryReads.readSeparately(() -> vehicleRepository.findRatesByIdIn(Set.of(vehicleId))));
+        int row = card.row(vehicleId);
+        if (row < 0 || card.weeklyCents[row] < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(BigDecimal.valueOf(card.price(row, rentalDays(startDate, endDate)), 2));
+    }
+
+    /**
+     * Quotes every vehicle that has a weekly rate, in id order.
+     */
+    public List<QuoteDTO> quoteFleet(LocalDate startDate, LocalDate endDate) {
+        long days = rentalDays(startDate, endDate);
+        RateCard card = rateCard();
+        long[] totals = card.priceAll(days);
+        List<QuoteDTO> quotes = new ArrayList<>(totals.length);
+        for (int row = 0; row < totals.length; row++) {
+            if (totals[row] >= 0) {
+                quotes.add(toDto(card, row, startDate, endDate, days, totals[row]));
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Price in cents for each vehicle in id order, -1 where the vehicle has no weekly rate. This is
+     * the allocation-free core of {@link #quoteFleet}.
+     */
+    public long[] priceFleetCents(LocalDate startDate, LocalDate endDate) {
+        return rateCard().priceAll(rentalDays(startDate, endDate));
+    }
+
+    static long rentalDays(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new ResponseStatusException(BAD_REQUEST, "Start and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(BAD_REQUEST, "End date must not be before start date");
+        }
+        return Math.max(1, ChronoUnit.DAYS.between(startDate, endDate));
+    }
+
+    private QuoteDTO toDto(RateCard card, int row, LocalDate startDate, LocalDate endDate, long days, long cents) {
+        long mileage = card.mileageHundredths[row];
+        return new QuoteDTO(card.ids[row], startDate, endDate, days, BigDecimal.valueOf(cents, 2),
+                mileage < 0 ? null : BigDecimal.valueOf(Math.multiplyExact(mileage, days), 2));
+    }
+
+    private RateCard rateCard() {
+        if (reloadAll || !changed.isEmpty()) {
+            refresh();
+        }
+        return rateCard;
+    }
+
+    /**
+     * Reloads everything when the Vehicle table changed since the last full load, here or on
+     * another node. Changes made here are usually in already, but cannot be told apart.
+     */
+    @Scheduled(fixedDelayString = "${quote.rates.check-ms:10000}",
+            initialDelayString = "${quote.rates.check-ms:10000}")
+    public void checkVersion() {
+        if (rateCard != null && tableVersions.version(Vehicle.class) != loadedVersion) {
+            invalidateAll();
+            refresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            RateCard card = rateCard;
+            if (card == null || reloadAll || changed.size() > MAX_ROW_REFRESH) {
+                // Marks made while loading stay set, so their vehicles are re-read next time. The
+                // version is read first, so a change committed during the load forces another one
+                reloadAll = false;
+                changed.clear();
+                loadedVersion = tableVersions.version(Vehicle.class);
+                rateCard = RateCard.of(primaryReads.readSeparately(vehicleRepository::findAllRates));
+            } else if (!changed.isEmpty()) {
+                Set<Long> ids = new HashSet<>(changed);
+                changed.removeAll(ids);
+                rateCard = card.with(ids, primaryReads.readSeparately(() -> vehicleRepository.findRatesByIdIn(ids)));
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // -1 stands for a missing (or negative) value
+    private static long toHundredths(BigDecimal value) {
+        if (value == null || value.signum() < 0) {
+            return -1;
+        }
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Immutable rate tables for the whole fleet, one row per vehicle in id order.
+     */
+    private static final class RateCard {
+        final long[] ids;
+        final long[] weeklyCents;
+        // Seven entries per vehicle: the price of 0..6 days beyond the whole weeks
+        final long[] partWeekCents;
+        final long[] mileageHundredths;
+
+        RateCard(long[] ids, long[] weeklyCents, long[] partWeekCents, long[] mileageHundredths) {
+            this.ids = ids;
+            this.weeklyCents = weeklyCents;
+            this.partWeekCents = partWeekCents;
+            this.mileageHundredths = mileageHundredths;
+        }
+
+        // Rows are {id, weeklyRate, mileageLimitPerDay} in id order
+        static RateCard of(List<Object[]> rows) {
+            Builder builder = new Builder(rows.size());
+            rows.forEach(builder::add);
+            return builder.build();
+        }
+
+        /**
+         * A copy with the given vehicles' rows replaced by {@code rows} (in id order); vehicles that
+         * were deleted are simply not found again.
+         */
+        RateCard with(Set<Long> changedIds, List<Object[]> rows) {
+            Builder builder = new Builder(ids.length + rows.size());
+            int next = 0;
+            for (int row = 0; row < ids.length; row++) {
+                while (next < rows.size() && (Long) rows.get(next)[0] < ids[row]) {
+                    builder.add(rows.get(next++));
+                }
+                if (!changedIds.contains(ids[row])) {
+                    builder.copy(this, row);
+                }
+            }
+            while (next < rows.size()) {
+                builder.add(rows.get(next++));
+            }
+            return builder.build();
+        }
+
+        int row(Long vehicleId) {
+            return vehicleId == null ? -1 : Math.max(-1, Arrays.binarySearch(ids, vehicleId));
+        }
+
+        long price(int row, long days) {
+            return (days / 7) * weeklyCents[row] + partWeekCents[row * 7 + (int) (days % 7)];
+        }
+
+        long[] priceAll(long days) {
+            long weeks = days / 7;
+            int extraDays = (int) (days % 7);
+            long[] totals = new long[ids.length];
+            for (int row = 0; row < totals.length; row++) {
+                long weekly = weeklyCents[row];
+                totals[row] = weekly < 0 ? -1 : weeks * weekly + partWeekCents[row * 7 + extraDays];
+            }
+            return totals;
+        }
+    }
+
+    private static final class Builder {
+        private long[] ids;
+        private long[] weeklyCents;
+        private long[] partWeekCents;
+        private long[] mileageHundredths;
+        private int size;
+
+        Builder(int capacity) {
+            ids = new long[capacity];
+            weeklyCents = new long[capacity];
+            partWeekCents = new long[capacity * 7];
+            mileageHundredths = new long[capacity];
+        }
+
+        void add(Object[] row) {
+            int i = size++;
+            ids[i] = (Long) row[0];
+            weeklyCents[i] = toHundredths((BigDecimal) row[1]);
+            mileageHundredths[i] = toHundredths((BigDecimal) row[2]);
+            for (int extraDays = 0; extraDays < 7; extraDays++) {
+                partWeekCents[i * 7 + extraDays] = weeklyCents[i] < 0 ? -1
+                        : Math.min(weeklyCents[i], (weeklyCents[i] * extraDays * 2 + 7) / 14);
+            }
+        }
+
+        void copy(RateCard card, int row) {
+            int i = size++;
+            ids[i] = card.ids[row];
+            weeklyCents[i] = card.weeklyCents[row];
+            mileageHundredths[i] = card.mileageHundredths[row];
+            System.arraycopy(card.partWeekCents, row * 7, partWeekCents, i * 7, 7);
+        }
+
+        RateCard build() {
+            return new RateCard(Arrays.copyOf(ids, size), Arrays.copyOf(weeklyCents, size),
+                    Arrays.copyOf(partWeekCents, size * 7), Arrays.copyOf(mileageHundredths, size));
+        }
+    }
+}
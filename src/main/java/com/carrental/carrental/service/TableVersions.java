@@ -0,0 +1,176 @@
+package com.carrental.carrental.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change counter per entity type, kept in the {@code table_versions} table and bumped in the
+ * same transaction as every insert, update or delete, just before it commits. Lets list endpoints
+ * build a strong ETag from one small read instead of the full response, and since the counters
+ * live in the database every node agrees on them.
+ * <p>
+ * A transaction holds the row lock of each type it changed from that bump until it commits, so
+ * writers of the same type queue for that moment only; rows are locked in name order so two
+ * transactions cannot deadlock on them. Writes that bypass the session (JDBC, bulk JPQL) must
+ * call {@link #bump(Class)} themselves, inside their transaction.
+ */
+@Component
+public class TableVersions implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String BUMP_SQL = "UPDATE table_versions SET version = version + 1 WHERE entity = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrimaryReads primaryReads;
+
+    // Entity types changed in each session's current transaction; only touched by that session's thread
+    private final Map<EventSource, SortedSet<String>> changed = new ConcurrentHashMap<>();
+
+    public TableVersions(EntityManagerFactory entityManagerFactory,
+                         JdbcTemplate jdbcTemplate,
+                         PrimaryReads primaryReads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryReads = primaryReads;
+        addMissingRows(entityManagerFactory);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Strong ETag covering the given entity types. Endpoints whose output depends on today's
+     * date (anything "current" or "next available") pass it so the tag rolls over at midnight.
+     */
+    public String etag(LocalDate day, Class<?>... entities) {
+        StringBuilder etag = new StringBuilder("\"");
+        long[] versions = versions(entities);
+        for (int i = 0; i < versions.length; i++) {
+            etag.append(i == 0 ? "" : "-").append(versions[i]);
+        }
+        if (day != null) {
+            etag.append('-').append(day.toEpochDay());
+        }
+        return etag.append('"').toString();
+    }
+
+    public long version(Class<?> entity) {
+        return versions(entity)[0];
+    }
+
+    /**
+     * Committed versions of the given types, in the same order, read from the primary in one query.
+     */
+    public long[] versions(Class<?>... entities) {
+        Map<String, Long> all = primaryReads.read(() -> {
+            Map<String, Long> rows = new HashMap<>();
+            jdbcTemplate.query("SELECT entity, version FROM table_versions",
+                    (RowCallbackHandler) rs -> rows.put(rs.getString(1), rs.getLong(2)));
+            return rows;
+        });
+        long[] versions = new long[entities.length];
+        for (int i = 0; i < entities.length; i++) {
+            versions[i] = all.getOrDefault(entities[i].getSimpleName(), 0L);
+        }
+        return versions;
+    }
+
+    /**
+     * Bumps the version in the caller's transaction, or on its own outside one.
+     */
+    public void bump(Class<?> entity) {
+        jdbcTemplate.update(BUMP_SQL, entity.getSimpleName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    // The bump is part of the transaction itself, not something to run after it
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(EventSource session, EntityPersister persister) {
+        SortedSet<String> entities = changed.get(session);
+        if (entities == null) {
+            // The first change in this transaction: bump once everything is flushed, forget either way
+            entities = new TreeSet<>();
+            changed.put(session, entities);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> bumpChanged(session));
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> changed.remove(session));
+        }
+        entities.add(persister.getMappedClass().getSimpleName());
+    }
+
+    private void bumpChanged(EventSource session) {
+        SortedSet<String> entities = changed.get(session);
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(BUMP_SQL)) {
+                for (String entity : entities) {
+                    statement.setString(1, entity);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // Every mapped type gets a row, so a bump always has something to update
+    private void addMissingRows(EntityManagerFactory entityManagerFactory) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT entity FROM table_versions", String.class));
+        for (EntityType<?> type : entityManagerFactory.getMetamodel().getEntities()) {
+            String entity = type.getJavaType().getSimpleName();
+            if (!existing.contains(entity)) {
+                try {
+                    jdbcTemplate.update("INSERT INTO table_versions (entity, version) VALUES (?, 0)", entity);
+                } catch (DuplicateKeyException e) {
+                    // Another node added it first
+                }
+            }
+        }
+    }
+}
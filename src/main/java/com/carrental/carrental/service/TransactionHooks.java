@@ -0,0 +1,31 @@
+package com.carrental.carrental.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for keeping in-memory state in step with the database.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+        // Utility class
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or straight away when there is none.
+     * Rolled back transactions never run it.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,279 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.IdleGapDTO;
+import com.carrental.carrental.dto.RevenuePerDayDTO;
+import com.carrental.carrental.dto.UtilizationDTO;
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.model.Maintenance;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.BookingRepository;
+import com.carrental.carrental.repository.MaintenanceRepository;
+import com.carrental.carrental.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Fleet utilization over an arbitrary window, per vehicle or per make and model: the share of
+ * days rented, blocked and in maintenance, the idle gaps between them, and revenue per day.
+ * <p>
+ * Rented means ACTIVE or COMPLETED bookings; a booking's total cost is spread evenly over its
+ * days. Everything is computed from {@link FleetColumns}, a columnar copy of the relevant booking,
+ * blocked period and maintenance columns, loaded in keyset chunks of short transactions on the
+ * primary, since the versions it is checked against are the primary's. The copy is reloaded
+ * on the first report after a change to any of those tables committed on any node, as seen in
+ * the {@link TableVersions} kept in the database, at most once per {@code analytics.refresh-ms};
+ * while one request reloads, others are served from the old copy.
+ */
+@Service
+public class UtilizationAnalytics {
+
+    private static final int LOAD_CHUNK_SIZE = 50_000;
+    private static final List<String> RENTED_STATUSES = List.of(BookingStatus.ACTIVE, BookingStatus.COMPLETED);
+    private static final Class<?>[] SOURCES = {Vehicle.class, Booking.class, BlockedPeriod.class, Maintenance.class};
+
+    private final VehicleRepository vehicleRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final MaintenanceRepository maintenanceRepository;
+    private final TableVersions tableVersions;
+    private final PrimaryReads primaryReads;
+    private final long refreshMillis;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public UtilizationAnalytics(VehicleRepository vehicleRepository,
+                                BookingRepository bookingRepository,
+                                BlockedPeriodRepository blockedPeriodRepository,
+                                MaintenanceRepository maintenanceRepository,
+                                TableVersions tableVersions,
+                                PrimaryReads primaryReads,
+                                @Value("${analytics.refresh-ms:60000}") long refreshMillis) {
+        this.vehicleRepository = vehicleRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.maintenanceRepository = maintenanceRepository;
+        this.tableVersions = tableVersions;
+        this.primaryReads = primaryReads;
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * @param groupBy {@code vehicle} (in id order) or {@code model} (by make, then model)
+     */
+    public List<UtilizationDTO> utilization(LocalDate from, LocalDate to, String groupBy) {
+        List<UtilizationDTO> report = new ArrayList<>();
+        for (Row row : rows(from, to, groupBy)) {
+            report.add(new UtilizationDTO(row.vehicleId, row.make, row.model, row.vehicles, row.vehicleDays,
+                    row.rentedDays, row.blockedDays, row.maintenanceDays, row.idleDays(),
+                    percent(row.rentedDays, row.vehicleDays), percent(row.blockedDays, row.vehicleDays),
+                    percent(row.maintenanceDays, row.vehicleDays), percent(row.idleDays(), row.vehicleDays)));
+        }
+        return report;
+    }
+
+    public List<IdleGapDTO> idleGaps(LocalDate from, LocalDate to, String groupBy) {
+        List<IdleGapDTO> report = new ArrayList<>();
+        for (Row row : rows(from, to, groupBy)) {
+            BigDecimal average = row.gaps == 0 ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(row.idleDays()).divide(BigDecimal.valueOf(row.gaps), 1, RoundingMode.HALF_UP);
+            report.add(new IdleGapDTO(row.vehicleId, row.make, row.model, row.vehicles, row.idleDays(),
+                    row.gaps, average, row.longestGap));
+        }
+        return report;
+    }
+
+    public List<RevenuePerDayDTO> revenuePerDay(LocalDate from, LocalDate to, String groupBy) {
+        List<RevenuePerDayDTO> report = new ArrayList<>();
+        for (Row row : rows(from, to, groupBy)) {
+            report.add(new RevenuePerDayDTO(row.vehicleId, row.make, row.model, row.vehicles,
+                    BigDecimal.valueOf(row.revenueCents, 2), row.rentedDays,
+                    perDay(row.revenueCents, row.vehicleDays),
+                    row.rentedDays == 0 ? null : perDay(row.revenueCents, row.rentedDays)));
+        }
+        return report;
+    }
+
+    private List<Row> rows(LocalDate from, LocalDate to, String groupBy) {
+        if (from == null || to == null) {
+            throw new ResponseStatusException(BAD_REQUEST, "From and to dates are required");
+        }
+        boolean byModel = "model".equals(groupBy);
+        if (!byModel && !"vehicle".equals(groupBy)) {
+            throw new ResponseStatusException(BAD_REQUEST, "groupBy must be 'vehicle' or 'model'");
+        }
+        FleetColumns columns = columns();
+        FleetColumns.Totals totals;
+        try {
+            totals = columns.aggregate(from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, e.getMessage());
+        }
+        return byModel ? modelRows(columns, totals) : vehicleRows(columns, totals);
+    }
+
+    private static List<Row> vehicleRows(FleetColumns columns, FleetColumns.Totals totals) {
+        List<Row> rows = new ArrayList<>(columns.vehicleCount());
+        for (int v = 0; v < columns.vehicleCount(); v++) {
+            int m = columns.modelOf[v];
+            Row row = new Row(columns.vehicleIds[v], columns.makes[m], columns.models[m]);
+            row.add(totals, v);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Row> modelRows(FleetColumns columns, FleetColumns.Totals totals) {
+        Row[] byModel = new Row[columns.makes.length];
+        for (int m = 0; m < byModel.length; m++) {
+            byModel[m] = new Row(null, columns.makes[m], columns.models[m]);
+        }
+        for (int v = 0; v < columns.vehicleCount(); v++) {
+            byModel[columns.modelOf[v]].add(totals, v);
+        }
+        List<Row> rows = new ArrayList<>(Arrays.asList(byModel));
+        rows.sort(Comparator.comparing((Row row) -> row.make).thenComparing(row -> row.model));
+        return rows;
+    }
+
+    private static BigDecimal percent(long part, long whole) {
+        return whole == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(part * 100).divide(BigDecimal.valueOf(whole), 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal perDay(long cents, long days) {
+        return days == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(cents).divide(BigDecimal.valueOf(days * 100), 2, RoundingMode.HALF_UP);
+    }
+
+    // --- columnar copy ---
+
+    private FleetColumns columns() {
+        Snapshot current = snapshot;
+        if (current != null && isFresh(current)) {
+            return current.columns;
+        }
+        if (current == null) {
+            loadLock.lock();
+        } else if (!loadLock.tryLock()) {
+            return current.columns;
+        }
+        try {
+            current = snapshot;
+            if (current == null || !isFresh(current)) {
+                // Read the versions first: a change committed while loading triggers another reload
+                long[] versions = versions();
+                current = new Snapshot(load(), versions, System.currentTimeMillis());
+                snapshot = current;
+            }
+            return current.columns;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return System.currentTimeMillis() - current.loadedAt < refreshMillis
+                || Arrays.equals(current.versions, versions());
+    }
+
+    // Shared by all nodes, so a change committed elsewhere is noticed here too
+    private long[] versions() {
+        return tableVersions.versions(SOURCES);
+    }
+
+    private FleetColumns load() {
+        FleetColumns.Builder builder = FleetColumns.builder();
+        for (Object[] row : primaryReads.read(vehicleRepository::findAllModels)) {
+            builder.addVehicle(((Number) row[0]).longValue(), (String) row[1], (String) row[2]);
+        }
+        inChunks(afterId -> bookingRepository.findSpansAfter(afterId, RENTED_STATUSES, Limit.of(LOAD_CHUNK_SIZE)),
+                row -> builder.addBooking(((Number) row[1]).longValue(), ((LocalDate) row[2]).toEpochDay(),
+                        ((LocalDate) row[3]).toEpochDay(), toCents((BigDecimal) row[4])));
+        inChunks(afterId -> blockedPeriodRepository.findSpansAfter(afterId, Limit.of(LOAD_CHUNK_SIZE)),
+                row -> {
+                    if (row[1] != null && row[2] != null && row[3] != null) {
+                        builder.addBlock(((Number) row[1]).longValue(), ((LocalDate) row[2]).toEpochDay(),
+                                ((LocalDate) row[3]).toEpochDay());
+                    }
+                });
+        inChunks(afterId -> maintenanceRepository.findDaysAfter(afterId, Limit.of(LOAD_CHUNK_SIZE)),
+                row -> builder.addMaintenanceDay(((Number) row[1]).longValue(), ((LocalDate) row[2]).toEpochDay()));
+        return builder.build();
+    }
+
+    // Rows carry their id first; each chunk is its own short read so no connection is held for the whole load
+    private void inChunks(LongFunction<List<Object[]>> query, Consumer<Object[]> consumer) {
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Object[]> rows = primaryReads.read(() -> query.apply(cursor));
+            rows.forEach(consumer);
+            if (rows.size() < LOAD_CHUNK_SIZE) {
+                return;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1)[0]).longValue();
+        }
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value == null ? 0 : value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private record Snapshot(FleetColumns columns, long[] versions, long loadedAt) {
+    }
+
+    // One report line: a vehicle, or the sum over a make and model
+    private static final class Row {
+        final Long vehicleId;
+        final String make;
+        final String model;
+        int vehicles;
+        long vehicleDays;
+        long rentedDays;
+        long blockedDays;
+        long maintenanceDays;
+        long gaps;
+        int longestGap;
+        long revenueCents;
+
+        Row(Long vehicleId, String make, String model) {
+            this.vehicleId = vehicleId;
+            this.make = make;
+            this.model = model;
+        }
+
+        void add(FleetColumns.Totals totals, int v) {
+            vehicles++;
+            vehicleDays += totals.windowDays;
+            rentedDays += totals.rentedDays[v];
+            blockedDays += totals.blockedDays[v];
+            maintenanceDays += totals.maintenanceDays[v];
+            gaps += totals.gaps[v];
+            longestGap = Math.max(longestGap, totals.longestGap[v]);
+            revenueCents += totals.revenueCents[v];
+        }
+
+        long idleDays() {
+            return vehicleDays - rentedDays - blockedDays - maintenanceDays;
+        }
+    }
+}
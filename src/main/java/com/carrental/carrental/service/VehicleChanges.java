@@ -0,0 +1,34 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.model.VehicleChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells {@link AvailabilityEventStream}, {@link AvailabilitySnapshot} and {@link QuoteEngine}
+ * about added, changed and removed vehicles once the transaction has committed.
+ */
+@Component
+public class VehicleChanges {
+
+    private final AvailabilityEventStream eventStream;
+    private final AvailabilitySnapshot availabilitySnapshot;
+    private final QuoteEngine quoteEngine;
+
+    public VehicleChanges(AvailabilityEventStream eventStream, AvailabilitySnapshot availabilitySnapshot,
+                          QuoteEngine quoteEngine) {
+        this.eventStream = eventStream;
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.quoteEngine = quoteEngine;
+    }
+
+    @EventListener
+    public void vehicleChanged(VehicleChangedEvent event) {
+        Long vehicleId = event.vehicleId();
+        TransactionHooks.afterCommit(() -> {
+            eventStream.vehicleChanged(vehicleId);
+            availabilitySnapshot.vehicleChanged(vehicleId);
+            quoteEngine.vehicleChanged(vehicleId);
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.dto.ImportResultDTO;
+import com.carrental.carrental.model.Vehicle;
+import com.carrental.carrental.model.VehicleStatus;
+import com.carrental.carrental.repository.VehicleRepository;
+import com.carrental.carrental.util.CsvReader;
+import com.carrental.carrental.util.CsvWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * CSV export and import of the fleet. Export streams the table in keyset chunks straight to
+ * the response. Import upserts on the unique licence plate in chunked transactions: existing
+ * vehicles are updated through JPA (batched UPDATEs), new ones are inserted with a single JDBC
+ * batch per chunk because IDENTITY ids keep Hibernate from batching inserts.
+ */
+@Service
+public class VehicleCsvService {
+
+    private static final String[] COLUMNS = {
+            "id", "licensePlate", "make", "model", "year", "colour", "mileageLimitPerDay", "weeklyRate", "status"
+    };
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT INTO Vehicle " +
+            "(LicensePlate, Make, Model, Year, Colour, MileageLimitPerDay, WeeklyRate, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final VehicleRepository vehicleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final FleetCounters fleetCounters;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TableVersions tableVersions;
+    private final AvailabilitySnapshot availabilitySnapshot;
+    private final VehicleIntervalIndex intervalIndex;
+    private final QuoteEngine quoteEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public VehicleCsvService(VehicleRepository vehicleRepository,
+                             JdbcTemplate jdbcTemplate,
+                             FleetCounters fleetCounters,
+                             EntityManagerFactory entityManagerFactory,
+                             TableVersions tableVersions,
+                             AvailabilitySnapshot availabilitySnapshot,
+                             VehicleIntervalIndex intervalIndex,
+                             QuoteEngine quoteEngine,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${vehicle.import.chunk-size:500}") int chunkSize) {
+        this.vehicleRepository = vehicleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.fleetCounters = fleetCounters;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tableVersions = tableVersions;
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.intervalIndex = intervalIndex;
+        this.quoteEngine = quoteEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes the whole fleet as CSV, one short read per chunk so no connection is held while
+     * the client reads.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportCsv(OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        csv.write((Object[]) COLUMNS);
+        long afterId = 0;
+        while (true) {
+            List<Vehicle> vehicles = vehicleRepository.findByIdGreaterThanOrderById(afterId, Limit.of(EXPORT_CHUNK_SIZE));
+            for (Vehicle v : vehicles) {
+                csv.write(v.getId(), v.getLicensePlate(), v.getMake(), v.getModel(), v.getYear(), v.getColour(),
+                        v.getMileageLimitPerDay(), v.getWeeklyRate(), v.getStatus());
+            }
+            csv.flush();
+            if (vehicles.size() < EXPORT_CHUNK_SIZE) {
+                return;
+            }
+            afterId = vehicles.get(vehicles.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Upserts vehicles from CSV with a header row (same columns as the export, any order and
+     * case; only licensePlate is required). Blank cells leave the existing value unchanged; new
+     * vehicles need make, model, year and weeklyRate and default to Available. The id column is ignored.
+     */
+    public ImportResultDTO importCsv(InputStream in) throws IOException {
+        ImportResultDTO result = new ImportResultDTO();
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            return result;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("licenseplate")) {
+            throw new ResponseStatusException(BAD_REQUEST, "CSV header is missing column licensePlate");
+        }
+
+        List<NumberedVehicle> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            row++;
+            result.setReceived(result.getReceived() + 1);
+            Vehicle vehicle;
+            try {
+                vehicle = fromCsv(columns, record);
+            } catch (IllegalArgumentException e) {
+                result.addError(row, "Invalid value: " + e.getMessage());
+                continue;
+            }
+            String error = validate(vehicle);
+            if (error != null) {
+                result.addError(row, error);
+                continue;
+            }
+            chunk.add(new NumberedVehicle(row, vehicle));
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, result);
+            }
+        }
+        importChunk(chunk, result);
+        return result;
+    }
+
+    private Vehicle fromCsv(Map<String, Integer> columns, List<String> record) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setLicensePlate(parse(columns, record, "licenseplate", Function.identity()));
+        vehicle.setMake(parse(columns, record, "make", Function.identity()));
+        vehicle.setModel(parse(columns, record, "model", Function.identity()));
+        vehicle.setYear(parse(columns, record, "year", Integer::valueOf));
+        vehicle.setColour(parse(columns, record, "colour", Function.identity()));
+        vehicle.setMileageLimitPerDay(parse(columns, record, "mileagelimitperday", BigDecimal::new));
+        vehicle.setWeeklyRate(parse(columns, record, "weeklyrate", BigDecimal::new));
+        vehicle.setStatus(parse(columns, record, "status", Function.identity()));
+        return vehicle;
+    }
+
+    private static <T> T parse(Map<String, Integer> columns, List<String> record, String column,
+                               Function<String, T> parser) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isBlank()) {
+            return null;
+        }
+        return parser.apply(record.get(index).trim());
+    }
+
+    // Mirrors the bean validation on Vehicle so a bad row is reported instead of failing its chunk
+    private String validate(Vehicle vehicle) {
+        if (vehicle.getLicensePlate() == null) {
+            return "License plate is required";
+        }
+        if (vehicle.getMileageLimitPerDay() != null && vehicle.getMileageLimitPerDay().signum() < 0) {
+            return "Mileage limit per day must be positive";
+        }
+        if (vehicle.getWeeklyRate() != null && vehicle.getWeeklyRate().compareTo(new BigDecimal("0.01")) < 0) {
+            return "Weekly rate must be positive";
+        }
+        return null;
+    }
+
+    private void importChunk(List<NumberedVehicle> chunk, ImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<NumberedVehicle> accepted = new ArrayList<>();
+        List<NumberedError> rejected = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsertChunk(chunk, accepted, rejected));
+            result.setImported(result.getImported() + accepted.size());
+        } catch (RuntimeException e) {
+            for (NumberedVehicle row : accepted) {
+                rejected.add(new NumberedError(row.number(), "Not imported, chunk rolled back: " + e.getMessage()));
+            }
+        }
+        rejected.sort((a, b) -> Long.compare(a.row(), b.row()));
+        for (NumberedError error : rejected) {
+            result.addError(error.row(), error.message());
+        }
+        chunk.clear();
+    }
+
+    private void upsertChunk(List<NumberedVehicle> chunk, List<NumberedVehicle> accepted, List<NumberedError> rejected) {
+        Map<String, Vehicle> existing = vehicleRepository.findByLicensePlateIn(
+                        chunk.stream().map(row -> row.vehicle().getLicensePlate()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Vehicle::getLicensePlate, Function.identity()));
+        // A plate listed twice in one chunk is inserted once, with the later row's values on top
+        Map<String, Vehicle> inserts = new LinkedHashMap<>();
+
+        for (NumberedVehicle row : chunk) {
+            Vehicle incoming = row.vehicle();
+            Vehicle target = existing.get(incoming.getLicensePlate());
+            if (target == null) {
+                target = inserts.get(incoming.getLicensePlate());
+            }
+            if (target != null) {
+                copyGivenFields(incoming, target);
+                accepted.add(row);
+                continue;
+            }
+            if (incoming.getMake() == null || incoming.getModel() == null
+                    || incoming.getYear() == null || incoming.getWeeklyRate() == null) {
+                rejected.add(new NumberedError(row.number(), "New vehicles need make, model, year and weeklyRate"));
+                continue;
+            }
+            if (incoming.getStatus() == null) {
+                incoming.setStatus(VehicleStatus.AVAILABLE);
+            }
+            inserts.put(incoming.getLicensePlate(), incoming);
+            accepted.add(row);
+        }
+
+        // Updates go out as one JDBC batch when the session flushes
+        vehicleRepository.flush();
+        List<Object[]> rows = new ArrayList<>(inserts.size());
+        for (Vehicle v : inserts.values()) {
+            rows.add(new Object[]{v.getLicensePlate(), v.getMake(), v.getModel(), v.getYear(), v.getColour(),
+                    v.getMileageLimitPerDay(), v.getWeeklyRate(), v.getStatus()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            // Plain JDBC bypasses the entity listener and Hibernate's query cache invalidation
+            inserts.values().forEach(v -> fleetCounters.vehicleAdded(v.getStatus()));
+            tableVersions.bump(Vehicle.class);
+            TransactionHooks.afterCommit(() -> {
+                entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                        .evictQueryRegion(VehicleRepository.QUERY_CACHE_REGION);
+                availabilitySnapshot.invalidateAll();
+                intervalIndex.invalidateAll();
+                quoteEngine.invalidateAll();
+            });
+        }
+    }
+
+    private static void copyGivenFields(Vehicle from, Vehicle to) {
+        if (from.getMake() != null) {
+            to.setMake(from.getMake());
+        }
+        if (from.getModel() != null) {
+            to.setModel(from.getModel());
+        }
+        if (from.getYear() != null) {
+            to.setYear(from.getYear());
+        }
+        if (from.getColour() != null) {
+            to.setColour(from.getColour());
+        }
+        if (from.getMileageLimitPerDay() != null) {
+            to.setMileageLimitPerDay(from.getMileageLimitPerDay());
+        }
+        if (from.getWeeklyRate() != null) {
+            to.setWeeklyRate(from.getWeeklyRate());
+        }
+        if (from.getStatus() != null) {
+            to.setStatus(from.getStatus());
+        }
+    }
+
+    private record NumberedVehicle(long number, Vehicle vehicle) {
+    }
+
+    private record NumberedError(long row, String message) {
+    }
+}
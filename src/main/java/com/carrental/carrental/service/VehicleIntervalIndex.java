@@ -0,0 +1,331 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.model.BlockedPeriod;
+import com.carrental.carrental.model.Booking;
+import com.carrental.carrental.model.BookingStatus;
+import com.carrental.carrental.repository.BlockedPeriodRepository;
+import com.carrental.carrental.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory index of the bookings that hold a vehicle ({@link BookingStatus#holdsVehicle})
+ * and of blocked periods, per vehicle.
+ * <p>
+ * Each vehicle is loaded from the database on first use and is then kept up to
+ * date by the booking and availability write paths. Changes are applied after the
+ * surrounding transaction commits so a rolled back write never leaks into the
+ * index. Writes this process does not see (other nodes, bulk SQL) are picked up
+ * when a vehicle is reloaded, {@code availability.index.ttl-ms} after it was
+ * loaded; writers that bypass the hooks here call {@link #invalidate} or
+ * {@link #invalidateAll}. Overlap checks are a binary search over an immutable
+ * snapshot and only touch the database to (re)load. Loads read the primary, so an
+ * invalidated vehicle is never refilled from a replica that has not seen the write
+ * yet, and run outside the map's locks; a load that raced with a change to the
+ * same vehicle is discarded and repeated.
+ */
+@Component
+public class VehicleIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final PrimaryReads primaryReads;
+    private final long ttlMillis;
+
+    private final ConcurrentMap<Long, VehicleIntervals> vehicles = new ConcurrentHashMap<>();
+    // Bumped, under the vehicle's map entry lock, by every change or invalidation of the vehicle
+    private final ConcurrentMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final List<LongConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    public VehicleIntervalIndex(BookingRepository bookingRepository,
+                                BlockedPeriodRepository blockedPeriodRepository,
+                                PrimaryReads primaryReads,
+                                @Value("${availability.index.ttl-ms:60000}") long ttlMillis) {
+        this.bookingRepository = bookingRepository;
+        this.blockedPeriodRepository = blockedPeriodRepository;
+        this.primaryReads = primaryReads;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Same semantics as the old in-Java filter: ranges touching on a single day do not overlap.
+     */
+    public boolean hasBookingOverlap(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return get(vehicleId).bookings.overlapsExclusive(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Same semantics as {@code BlockedPeriodRepository.findOverlappingBlocks}: both ends are inclusive.
+     */
+    public boolean hasBlockOverlap(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return get(vehicleId).blocks.overlapsInclusive(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    public void bookingSaved(Booking booking) {
+        if (booking.getVehicle() == null || booking.getVehicle().getId() == null) {
+            return;
+        }
+        Long vehicleId = booking.getVehicle().getId();
+        Long bookingId = booking.getId();
+        if (BookingStatus.holdsVehicle(booking.getBookingStatus())
+                && booking.getPickupDate() != null && booking.getReturnDate() != null) {
+            long start = booking.getPickupDate().toEpochDay();
+            long end = booking.getReturnDate().toEpochDay();
+            afterCommit(vehicleId, v -> v.withBookings(v.bookings.with(bookingId, start, end)));
+        } else {
+            afterCommit(vehicleId, v -> v.withBookings(v.bookings.without(bookingId)));
+        }
+    }
+
+    public void bookingRemoved(Long vehicleId, Long bookingId) {
+        afterCommit(vehicleId, v -> v.withBookings(v.bookings.without(bookingId)));
+    }
+
+    public void blockSaved(BlockedPeriod block) {
+        long start = block.getStartDate().toEpochDay();
+        long end = block.getEndDate().toEpochDay();
+        afterCommit(block.getVehicleId(), v -> v.withBlocks(v.blocks.with(block.getId(), start, end)));
+    }
+
+    public void blockRemoved(Long vehicleId, Long blockId) {
+        afterCommit(vehicleId, v -> v.withBlocks(v.blocks.without(blockId)));
+    }
+
+    public void blocksCleared(Long vehicleId) {
+        afterCommit(vehicleId, v -> v.withBlocks(IntervalSet.EMPTY));
+    }
+
+    /**
+     * Same rule as the availability dashboard: the day after the earliest holding booking, else the
+     * day after the first block that has not ended yet, else {@code today}.
+     */
+    public LocalDate nextAvailable(Long vehicleId, LocalDate today) {
+        VehicleIntervals intervals = get(vehicleId);
+        if (intervals.bookings.size() > 0) {
+            return LocalDate.ofEpochDay(intervals.bookings.firstEnd()).plusDays(1);
+        }
+        long blockEnd = intervals.blocks.firstEndAfter(today.toEpochDay());
+        return blockEnd == Long.MIN_VALUE ? today : LocalDate.ofEpochDay(blockEnd).plusDays(1);
+    }
+
+    /**
+     * Registers a callback run with the vehicle id after each committed booking or block change
+     * has been applied, so the callback sees the new state.
+     */
+    public void addChangeListener(LongConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Drops a vehicle so that its next check reloads it from the database.
+     */
+    public void invalidate(Long vehicleId) {
+        vehicles.compute(vehicleId, (id, current) -> {
+            generation(id).incrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Drops every vehicle, for writes that do not name their vehicles.
+     */
+    public void invalidateAll() {
+        vehicles.keySet().forEach(this::invalidate);
+    }
+
+    private VehicleIntervals get(Long vehicleId) {
+        VehicleIntervals current = vehicles.get(vehicleId);
+        while (current == null || System.currentTimeMillis() - current.loadedAt >= ttlMillis) {
+            long generation = generation(vehicleId).get();
+            VehicleIntervals loaded = load(vehicleId);
+            // Only kept if nothing changed the vehicle meanwhile: the change may be missing from the load
+            current = vehicles.compute(vehicleId, (id, existing) ->
+                    generation(id).get() == generation ? loaded : existing);
+        }
+        return current;
+    }
+
+    private AtomicLong generation(Long vehicleId) {
+        return generations.computeIfAbsent(vehicleId, id -> new AtomicLong());
+    }
+
+    private VehicleIntervals load(Long vehicleId) {
+        return primaryReads.read(() -> loadFromDatabase(vehicleId));
+    }
+
+    private VehicleIntervals loadFromDatabase(Long vehicleId) {
+        List<Booking> bookings = bookingRepository.findByVehicle_IdAndBookingStatusIn(vehicleId, BookingStatus.HOLDING);
+        IntervalSet bookingSet = IntervalSet.EMPTY;
+        for (Booking booking : bookings) {
+            bookingSet = bookingSet.with(booking.getId(),
+                    booking.getPickupDate().toEpochDay(), booking.getReturnDate().toEpochDay());
+        }
+        IntervalSet blockSet = IntervalSet.EMPTY;
+        for (BlockedPeriod block : blockedPeriodRepository.findByVehicleId(vehicleId)) {
+            blockSet = blockSet.with(block.getId(),
+                    block.getStartDate().toEpochDay(), block.getEndDate().toEpochDay());
+        }
+        return new VehicleIntervals(bookingSet, blockSet, System.currentTimeMillis());
+    }
+
+    private void afterCommit(Long vehicleId, UnaryOperator<VehicleIntervals> change) {
+        if (vehicleId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            apply(vehicleId, change);
+            changeListeners.forEach(listener -> listener.accept(vehicleId));
+        });
+    }
+
+    private void apply(Long vehicleId, UnaryOperator<VehicleIntervals> change) {
+        // Vehicles that are not loaded pick the change up from the database on first use
+        vehicles.compute(vehicleId, (id, current) -> {
+            generation(id).incrementAndGet();
+            return current == null ? null : change.apply(current);
+        });
+    }
+
+    private record VehicleIntervals(IntervalSet bookings, IntervalSet blocks, long loadedAt) {
+        VehicleIntervals withBookings(IntervalSet bookings) {
+            return new VehicleIntervals(bookings, blocks, loadedAt);
+        }
+
+        VehicleIntervals withBlocks(IntervalSet blocks) {
+            return new VehicleIntervals(bookings, blocks, loadedAt);
+        }
+    }
+
+    /**
+     * Immutable interval list sorted by start day, with a running maximum of end days.
+     * Any interval overlapping [start, end] must begin no later than {@code end}, so one
+     * binary search plus the running maximum answers the query in O(log n).
+     */
+    static final class IntervalSet {
+
+        static final IntervalSet EMPTY = new IntervalSet(new long[0], new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private IntervalSet(long[] ids, long[] starts, long[] ends, long[] maxEnds) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+        }
+
+        boolean overlapsExclusive(long start, long end) {
+            int last = lastStartingBefore(end);
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        boolean overlapsInclusive(long start, long end) {
+            int last = lastStartingBefore(end + 1);
+            return last >= 0 && maxEnds[last] >= start;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        // End day of the interval that starts first
+        long firstEnd() {
+            return ends[0];
+        }
+
+        // End day of the first interval, by start, that ends after the given day, or Long.MIN_VALUE
+        long firstEndAfter(long day) {
+            for (long end : ends) {
+                if (end > day) {
+                    return end;
+                }
+            }
+            return Long.MIN_VALUE;
+        }
+
+        IntervalSet with(Long id, long start, long end) {
+            IntervalSet base = without(id);
+            int n = base.ids.length;
+            int pos = base.lastStartingBefore(start + 1) + 1;
+
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            newIds[pos] = id == null ? Long.MIN_VALUE : id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new IntervalSet(newIds, newStarts, newEnds, runningMax(newEnds));
+        }
+
+        IntervalSet without(Long id) {
+            if (id == null) {
+                return this;
+            }
+            int pos = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            int n = ids.length;
+            long[] newIds = new long[n - 1];
+            long[] newStarts = new long[n - 1];
+            long[] newEnds = new long[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(ids, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+            return new IntervalSet(newIds, newStarts, newEnds, runningMax(newEnds));
+        }
+
+        // Index of the last interval whose start is strictly before the given day, or -1
+        private int lastStartingBefore(long day) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        private static long[] runningMax(long[] ends) {
+            long[] maxEnds = Arrays.copyOf(ends, ends.length);
+            for (int i = 1; i < maxEnds.length; i++) {
+                maxEnds[i] = Math.max(maxEnds[i - 1], maxEnds[i]);
+            }
+            return maxEnds;
+        }
+    }
+}
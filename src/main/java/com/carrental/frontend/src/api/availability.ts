@@ -1,5 +1,7 @@
 // src/api/availability.ts
 
+import type { Vehicle } from './vehicles';
+
 export interface VehicleAvailability {
     id: number;
     make: string;
@@ -167,4 +169,54 @@ export const checkVehicleAvailability = async (
         console.error('Error checking vehicle availability:', error);
         return false;
     }
-};
\ No newline at end of file
+};
+
+/**
+ * Get every vehicle that is free for the whole date range
+ */
+export const getFreeVehicles = async (
+    startDate: string,
+    endDate: string,
+    filters: { make?: string; model?: string; page?: number; size?: number } = {}
+): Promise<{ vehicles: Vehicle[]; total: number }> => {
+    try {
+        const params = new URLSearchParams({ startDate, endDate });
+        if (filters.make) params.set('make', filters.make);
+        if (filters.model) params.set('model', filters.model);
+        if (filters.page !== undefined) params.set('page', String(filters.page));
+        if (filters.size !== undefined) params.set('size', String(filters.size));
+        const response = await fetch(`${API_BASE}/free?${params}`);
+        if (!response.ok) throw new Error('Failed to fetch free vehicles');
+        const vehicles: Vehicle[] = await response.json();
+        const total = Number(response.headers.get('X-Total-Count') ?? vehicles.length);
+        return { vehicles, total };
+    } catch (error) {
+        console.error('Error fetching free vehicles:', error);
+        return { vehicles: [], total: 0 };
+    }
+};
+
+export interface AvailabilityEvent {
+    vehicleId: number;
+    status: string | null;
+    nextAvailable: string | null;
+    deleted: boolean;
+}
+
+/**
+ * Subscribe to pushed vehicle status / next-available changes instead of polling.
+ * EventSource reconnects on its own and resumes from the last event it saw; `onReset` is
+ * called when the server can no longer replay what was missed and lists should be reloaded.
+ * Returns a function that closes the stream.
+ */
+export const subscribeToAvailabilityChanges = (
+    onEvent: (event: AvailabilityEvent) => void,
+    onReset: () => void
+): (() => void) => {
+    const source = new EventSource(`${API_BASE}/stream`);
+    source.addEventListener('availability', (message) => {
+        onEvent(JSON.parse((message as MessageEvent<string>).data));
+    });
+    source.addEventListener('reset', () => onReset());
+    return () => source.close();
+};
@@ -6,6 +6,28 @@ export async function getMaintenanceByCar(carId: number) {
     return res.json();
 }
 
+export interface MaintenanceSummary {
+    vehicleId: number;
+    totalCost: number;
+    totalCount: number;
+    countByStatus: Record<"PENDING" | "IN_PROGRESS" | "COMPLETED", number>;
+    lastServiceDate: string | null;
+}
+
+// One page of history, newest first, plus the total number of entries
+export async function getMaintenancePageByCar(carId: number, page: number, size = 20) {
+    const res = await fetch(`${API_BASE}/car/${carId}?page=${page}&size=${size}`);
+    if (!res.ok) throw new Error("Failed to fetch maintenance history");
+    const items = await res.json();
+    return { items, total: Number(res.headers.get("X-Total-Count") ?? items.length) };
+}
+
+export async function getMaintenanceSummary(carId: number): Promise<MaintenanceSummary> {
+    const res = await fetch(`${API_BASE}/car/${carId}/summary`);
+    if (!res.ok) throw new Error("Failed to fetch maintenance summary");
+    return res.json();
+}
+
 export async function createMaintenance(data: any) {
     const res = await fetch(API_BASE, {
         method: "POST",
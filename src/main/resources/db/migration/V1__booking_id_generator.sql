@@ -0,0 +1,10 @@
+-- Block-allocated ids for Booking (see @TableGenerator on Booking.id).
+-- Hibernate reserves 50 ids per round trip; the stored value is the top of the next block,
+-- so seeding it at MAX + 51 makes the first block start just above the existing rows.
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val      BIGINT      NOT NULL
+);
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'Booking', COALESCE(MAX(BookingID), 0) + 51 FROM Booking;
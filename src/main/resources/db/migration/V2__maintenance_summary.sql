@@ -0,0 +1,23 @@
+-- Per-vehicle maintenance rollup, kept up to date by MaintenanceService in the same transaction
+-- as the Maintenance row it changes. Backfilled here from the existing history.
+CREATE TABLE Maintenance_Summary (
+    VehicleID       BIGINT         NOT NULL PRIMARY KEY,
+    TotalCost       DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    PendingCount    INT            NOT NULL DEFAULT 0,
+    InProgressCount INT            NOT NULL DEFAULT 0,
+    CompletedCount  INT            NOT NULL DEFAULT 0,
+    LastServiceDate DATE           NULL
+);
+
+INSERT INTO Maintenance_Summary (VehicleID, TotalCost, PendingCount, InProgressCount, CompletedCount, LastServiceDate)
+SELECT VehicleID,
+       COALESCE(SUM(Cost), 0),
+       SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'IN_PROGRESS' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END),
+       MAX(service_date)
+FROM Maintenance
+GROUP BY VehicleID;
+
+-- Serves the paginated history (newest service first) and the MAX(service_date) fallback
+CREATE INDEX idx_maintenance_vehicle_service_date ON Maintenance (VehicleID, service_date);
@@ -0,0 +1,36 @@
+-- BookingStatus was free text ('Pending', 'ACTIVE', 'active', 'Confirmed', NULL, ...) compared with
+-- = in SQL. Normalize it to the upper-case values in model.BookingStatus and constrain it, so an
+-- index on it holds exactly the values the overlap queries look for. Unknown values become
+-- PENDING, which, like them, never blocks a vehicle.
+
+-- ACTIVE and CONFIRMED bookings hold their vehicle. Rows such as 'active' or 'Confirmed' were not
+-- seen by the overlap checks before and start holding once upper-cased, so every overlap between
+-- bookings that will hold is recorded here, with the statuses as they were, before anything is
+-- changed. The rows themselves are left as they are for someone to resolve.
+CREATE TABLE booking_status_conflicts (
+    BookingID BIGINT NOT NULL,
+    BookingStatus VARCHAR(30),
+    ConflictingBookingID BIGINT NOT NULL,
+    ConflictingBookingStatus VARCHAR(30),
+    VehicleID BIGINT,
+    PRIMARY KEY (BookingID, ConflictingBookingID)
+);
+INSERT INTO booking_status_conflicts
+    (BookingID, BookingStatus, ConflictingBookingID, ConflictingBookingStatus, VehicleID)
+SELECT b.BookingID, b.BookingStatus, o.BookingID, o.BookingStatus, b.VehicleID
+FROM Booking b
+JOIN Booking o ON o.VehicleID = b.VehicleID AND o.BookingID > b.BookingID
+    AND o.PickupDate < b.ReturnDate AND o.ReturnDate > b.PickupDate
+WHERE UPPER(TRIM(b.BookingStatus)) IN ('ACTIVE', 'CONFIRMED')
+  AND UPPER(TRIM(o.BookingStatus)) IN ('ACTIVE', 'CONFIRMED');
+
+UPDATE Booking SET BookingStatus = UPPER(TRIM(BookingStatus)) WHERE BookingStatus IS NOT NULL;
+UPDATE Booking SET BookingStatus = 'PENDING'
+WHERE BookingStatus IS NULL OR BookingStatus NOT IN ('PENDING', 'CONFIRMED', 'ACTIVE', 'COMPLETED', 'CANCELLED');
+
+-- Written to run on both MySQL and H2: MODIFY is MySQL-only, so the default is set on its own and
+-- NOT NULL is enforced by the check (a NULL would otherwise pass it as unknown)
+ALTER TABLE Booking ALTER COLUMN BookingStatus SET DEFAULT 'PENDING';
+ALTER TABLE Booking ADD CONSTRAINT chk_booking_status
+    CHECK (BookingStatus IS NOT NULL
+        AND BookingStatus IN ('PENDING', 'CONFIRMED', 'ACTIVE', 'COMPLETED', 'CANCELLED'));
@@ -0,0 +1,19 @@
+-- Indexes for the booking and block overlap lookups. Each one leads with the vehicle, then the
+-- equality column, then the range columns, so a lookup is one range scan inside a single
+-- vehicle's rows. Expected EXPLAIN output on MySQL 8 and H2 2.x is noted per index.
+
+-- BookingRepository.existsOverlappingActiveBooking and findByVehicle_IdAndBookingStatusIn:
+--   ref/range on idx_booking_vehicle_status_dates, "Using index" (covering; InnoDB secondary
+--   indexes carry BookingID for the excludeId check).
+-- findFirstActiveBookings / findByVehicle_IdInAndBookingStatusInOrderByPickupDate and the
+-- NOT EXISTS in VehicleRepository.findFreeVehicles: same index, one range per holding status
+-- (ACTIVE, CONFIRMED).
+CREATE INDEX idx_booking_vehicle_status_dates ON Booking (VehicleID, BookingStatus, PickupDate, ReturnDate);
+
+-- BlockedPeriodRepository.findOverlappingBlocks, existsOverlappingBlock and findNextBlocks:
+--   range on idx_blocked_period_vehicle_dates; covering for the exists check.
+CREATE INDEX idx_blocked_period_vehicle_dates ON BlockedPeriod (vehicleId, startDate, endDate);
+
+-- findActiveBlocks and countActiveBlocks: range on endDate >= CURRENT_DATE, which only
+-- touches blocks that have not ended yet however much history there is.
+CREATE INDEX idx_blocked_period_end_date ON BlockedPeriod (endDate);
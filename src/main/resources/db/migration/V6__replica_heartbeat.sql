@@ -0,0 +1,8 @@
+-- Replication heartbeat for ReplicaLagMonitor: stamped on the primary, read back from the replica.
+-- The age of the stamp seen on the replica is its lag. Epoch milliseconds avoid time zone handling.
+CREATE TABLE replica_heartbeat (
+    id      INT    NOT NULL PRIMARY KEY,
+    beat_at BIGINT NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, 0);
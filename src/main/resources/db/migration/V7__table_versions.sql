@@ -0,0 +1,7 @@
+-- Change counter per entity type for service.TableVersions. It is bumped in the transaction that
+-- makes the change, so every node reads the same version for the same committed content and
+-- builds the same ETag. TableVersions adds a row for each mapped entity at startup.
+CREATE TABLE table_versions (
+    entity  VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
@@ -0,0 +1,43 @@
+package com.carrental.carrental.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs every migration against an empty in-memory H2 database, configured the way the
+ * application configures Flyway, so the scripts are known to work without a pre-existing schema.
+ */
+class MigrationsTest {
+
+    private static final String URL = "jdbc:h2:mem:migrations;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE";
+
+    @Test
+    void migratesAnEmptyDatabase() {
+        FluentConfiguration configuration = Flyway.configure().dataSource(URL, "sa", "");
+        new PersistenceConfig().baselineExistingSchema().customize(configuration);
+
+        MigrateResult result = configuration.load().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrations).extracting(migration -> migration.version)
+                .containsExactly("0", "1", "2", "3", "4", "5", "6", "7");
+
+        JdbcTemplate jdbc = new JdbcTemplate(configuration.getDataSource());
+        jdbc.update("INSERT INTO Vehicle (LicensePlate, Make, Model, \"YEAR\", status) VALUES ('AB-123', 'Fiat', 'Panda', 2020, 'AVAILABLE')");
+        Long vehicleId = jdbc.queryForObject("SELECT VehicleID FROM Vehicle", Long.class);
+        jdbc.update("INSERT INTO Booking (BookingID, CustomerID, VehicleID, PickupDate, ReturnDate) VALUES (1, 1, ?, DATE '2026-01-01', DATE '2026-01-08')",
+                vehicleId);
+        assertThat(jdbc.queryForObject("SELECT BookingStatus FROM Booking", String.class)).isEqualTo("PENDING");
+        assertThatThrownBy(() -> jdbc.update("UPDATE Booking SET BookingStatus = 'active'"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbc.queryForObject("SELECT next_val FROM id_generator WHERE sequence_name = 'Booking'", Long.class))
+                .isEqualTo(51L);
+    }
+}
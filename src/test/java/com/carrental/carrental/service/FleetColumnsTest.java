@@ -0,0 +1,69 @@
+package com.carrental.carrental.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FleetColumnsTest {
+
+    private static final LocalDate DAY0 = LocalDate.of(2026, 3, 1);
+    private static final long D0 = DAY0.toEpochDay();
+
+    // Vehicle 1: rented days 0-4, blocked days 2-7, in the shop on days 3 and 6; vehicle 2: nothing
+    private static FleetColumns fleet() {
+        return FleetColumns.builder()
+                .addVehicle(2, "Fiat", "Panda")
+                .addVehicle(1, "Fiat", "Panda")
+                .addBooking(1, D0, D0 + 5, 50_000)
+                .addBlock(1, D0 + 2, D0 + 7)
+                .addMaintenanceDay(1, D0 + 3)
+                .addMaintenanceDay(1, D0 + 6)
+                .build();
+    }
+
+    @Test
+    void rentedOutranksMaintenanceWhichOutranksBlocked() {
+        FleetColumns fleet = fleet();
+
+        FleetColumns.Totals totals = fleet.aggregate(DAY0, DAY0.plusDays(10));
+
+        assertThat(fleet.vehicleIds).containsExactly(1L, 2L);
+        assertThat(totals.rentedDays[0]).isEqualTo(5);
+        assertThat(totals.maintenanceDays[0]).isEqualTo(1);
+        assertThat(totals.blockedDays[0]).isEqualTo(2);
+        assertThat(totals.idleDays(0)).isEqualTo(2);
+        assertThat(totals.gaps[0]).isEqualTo(1);
+        assertThat(totals.longestGap[0]).isEqualTo(2);
+        assertThat(totals.revenueCents[0]).isEqualTo(50_000);
+
+        assertThat(totals.idleDays(1)).isEqualTo(10);
+        assertThat(totals.gaps[1]).isEqualTo(1);
+        assertThat(totals.longestGap[1]).isEqualTo(10);
+        assertThat(totals.revenueCents[1]).isZero();
+    }
+
+    @Test
+    void onlyTheDaysInsideTheWindowCount() {
+        FleetColumns.Totals totals = fleet().aggregate(DAY0.plusDays(3), DAY0.plusDays(13));
+
+        assertThat(totals.rentedDays[0]).isEqualTo(2);
+        assertThat(totals.maintenanceDays[0]).isEqualTo(1);
+        assertThat(totals.blockedDays[0]).isEqualTo(2);
+        assertThat(totals.idleDays(0)).isEqualTo(5);
+        assertThat(totals.longestGap[0]).isEqualTo(5);
+        assertThat(totals.revenueCents[0]).isEqualTo(20_000);
+    }
+
+    @Test
+    void rejectsEmptyAndOverlongWindows() {
+        FleetColumns fleet = fleet();
+
+        assertThatThrownBy(() -> fleet.aggregate(DAY0, DAY0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fleet.aggregate(DAY0, DAY0.plusDays(FleetColumns.MAX_WINDOW_DAYS + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Part-week pricing: the extra days cost {@code weeklyRate * days / 7}, rounded half up to the
+ * cent and never more than a whole week.
+ */
+class QuoteEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void partWeekIsRoundedHalfUpToTheCent() {
+        QuoteEngine engine = engineWithWeeklyRate("100.00");
+
+        assertThat(price(engine, 1)).isEqualTo("14.29");
+        assertThat(price(engine, 2)).isEqualTo("28.57");
+        assertThat(price(engine, 3)).isEqualTo("42.86");
+        assertThat(price(engine, 6)).isEqualTo("85.71");
+        assertThat(price(engine, 7)).isEqualTo("100.00");
+        assertThat(price(engine, 8)).isEqualTo("114.29");
+    }
+
+    @Test
+    void sameDayReturnCostsOneDay() {
+        assertThat(price(engineWithWeeklyRate("100.00"), 0)).isEqualTo("14.29");
+    }
+
+    @Test
+    void partWeekNeverCostsMoreThanAWeek() {
+        QuoteEngine engine = engineWithWeeklyRate("0.01");
+
+        assertThat(price(engine, 1)).isEqualTo("0.00");
+        assertThat(price(engine, 4)).isEqualTo("0.01");
+        assertThat(price(engine, 6)).isEqualTo("0.01");
+        assertThat(price(engine, 13)).isEqualTo("0.02");
+    }
+
+    private static String price(QuoteEngine engine, int days) {
+        return engine.findPrice(1L, START, START.plusDays(days)).map(BigDecimal::toPlainString).orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QuoteEngine engineWithWeeklyRate(String weeklyRate) {
+        VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+        PrimaryReads primaryReads = mock(PrimaryReads.class);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, new BigDecimal(weeklyRate), new BigDecimal("100")});
+        when(vehicleRepository.findRatesByIdIn(anyCollection())).thenReturn(rows);
+        when(primaryReads.readSeparately(any())).thenAnswer(call -> ((Supplier<Object>) call.getArgument(0)).get());
+        return new QuoteEngine(vehicleRepository, primaryReads, mock(TableVersions.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.carrental.carrental.service;
+
+import com.carrental.carrental.service.VehicleIntervalIndex.IntervalSet;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overlap checks of {@link IntervalSet}: bookings are half-open {@code [pickup, return)} and use
+ * the exclusive check, blocked periods are closed {@code [start, end]} and use the inclusive one.
+ */
+class VehicleIntervalIndexTest {
+
+    @Test
+    void exclusiveEndsDoNotOverlapRangesThatOnlyTouch() {
+        IntervalSet set = IntervalSet.EMPTY.with(1L, 10, 15);
+
+        assertThat(set.overlapsExclusive(15, 20)).isFalse();
+        assertThat(set.overlapsExclusive(5, 10)).isFalse();
+        assertThat(set.overlapsExclusive(14, 20)).isTrue();
+        assertThat(set.overlapsExclusive(5, 11)).isTrue();
+        assertThat(set.overlapsExclusive(11, 12)).isTrue();
+    }
+
+    @Test
+    void inclusiveEndsOverlapRangesThatShareADay() {
+        IntervalSet set = IntervalSet.EMPTY.with(1L, 10, 15);
+
+        assertThat(set.overlapsInclusive(15, 20)).isTrue();
+        assertThat(set.overlapsInclusive(5, 10)).isTrue();
+        assertThat(set.overlapsInclusive(16, 20)).isFalse();
+        assertThat(set.overlapsInclusive(5, 9)).isFalse();
+    }
+
+    @Test
+    void longIntervalIsFoundBehindLaterShortOnes() {
+        IntervalSet set = IntervalSet.EMPTY.with(1L, 0, 100).with(2L, 10, 12).with(3L, 20, 22);
+
+        assertThat(set.overlapsExclusive(50, 60)).isTrue();
+        assertThat(set.overlapsInclusive(100, 110)).isTrue();
+        assertThat(set.without(1L).overlapsExclusive(50, 60)).isFalse();
+        assertThat(set.without(1L).size()).isEqualTo(2);
+    }
+
+    @Test
+    void withReplacesAnIntervalOfTheSameId() {
+        IntervalSet set = IntervalSet.EMPTY.with(1L, 10, 15).with(1L, 30, 35);
+
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.overlapsExclusive(10, 15)).isFalse();
+        assertThat(set.firstEnd()).isEqualTo(35);
+        assertThat(set.firstEndAfter(35)).isEqualTo(Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.carrental.carrental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepLineBreaksAndEscapedQuotes() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "id,notes\r\n1,\"line one\r\nline two\"\r\n\r\n2,\"say \"\"hi\"\", then, leave\"\r\n"));
+
+        assertThat(reader.next()).containsExactly("id", "notes");
+        assertThat(reader.next()).containsExactly("1", "line one\r\nline two");
+        assertThat(reader.next()).containsExactly("2", "say \"hi\", then, leave");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreakAndKeepsEmptyFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,,\n\"\",b"));
+
+        assertThat(reader.next()).containsExactly("a", "", "");
+        assertThat(reader.next()).containsExactly("", "b");
+        assertThat(reader.next()).isNull();
+    }
+}